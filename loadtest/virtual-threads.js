@@ -0,0 +1,51 @@
+// k6 load test: platform vs virtual threads at 5k concurrent clients.
+//
+// Run once per mode against the same infrastructure and compare http_reqs/s and p95 latency:
+//   APP_VIRTUAL_THREADS_ENABLED=false ./mvnw spring-boot:run
+//   APP_VIRTUAL_THREADS_ENABLED=true  ./mvnw spring-boot:run
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e ACCESS_TOKEN=<jwt> loadtest/virtual-threads.js
+//
+// ACCESS_TOKEN must be valid for the whole run; raise jwt.expiration for the test if needed.
+import http from 'k6/http';
+import { check } from 'k6';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const ACCESS_TOKEN = __ENV.ACCESS_TOKEN;
+const VUS = parseInt(__ENV.VUS || '5000');
+
+export const options = {
+    scenarios: {
+        concurrent_clients: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '30s', target: VUS },
+                { duration: '2m', target: VUS },
+                { duration: '15s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    thresholds: {
+        http_req_failed: ['rate<0.01'],
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+};
+
+const params = {
+    headers: { Authorization: `Bearer ${ACCESS_TOKEN}` },
+    tags: { name: 'unread-count' },
+};
+
+export function setup() {
+    if (!ACCESS_TOKEN) {
+        throw new Error('ACCESS_TOKEN is required');
+    }
+}
+
+export default function () {
+    // Authenticated endpoint that hits JWT verification and Postgres on every call
+    const res = http.get(`${BASE_URL}/api/notifications/unread/count`, params);
+    check(res, { 'status is 200': (r) => r.status === 200 });
+}
@@ -0,0 +1,99 @@
+package com.example.notification.template;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.config.notification.NotificationTemplateConfig;
+import com.example.notification.model.enums.NotificationChannel;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.spring6.templateresolver.SpringResourceTemplateResolver;
+
+/**
+ * Text channel rendering: the full Thymeleaf engine against the compiled segment renderer,
+ * on the real SMS and WhatsApp templates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TextTemplateRenderBenchmark {
+
+    @Param({"SMS:otp-verification", "WHATSAPP:welcome"})
+    public String template;
+
+    private FileTemplateRenderer thymeleafRenderer;
+    private CompiledTextTemplateRenderer compiledRenderer;
+
+    private NotificationChannel channel;
+    private String templateCode;
+    private Map<String, Object> data;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NotificationProperties properties = new NotificationProperties();
+        SpringTemplateEngine engine = templateEngine(properties);
+
+        NotificationTemplateRegistry registry =
+            new NotificationTemplateRegistry(engine, new PathMatchingResourcePatternResolver(), properties);
+        registry.loadTemplates();
+
+        thymeleafRenderer = new FileTemplateRenderer(engine, registry);
+        compiledRenderer = new CompiledTextTemplateRenderer(
+            thymeleafRenderer, new PathMatchingResourcePatternResolver(), properties);
+
+        String[] parts = template.split(":");
+        channel = NotificationChannel.valueOf(parts[0]);
+        templateCode = parts[1];
+        data = Map.of(
+            "verificationCode", "482913",
+            "expiryMinutes", 5,
+            "userName", "Jane",
+            "appUrl", "https://example.com/start"
+        );
+
+        String expected = thymeleafRenderer.render(channel, templateCode, data);
+        String actual = compiledRenderer.render(channel, templateCode, data);
+        if (!expected.equals(actual)) {
+            throw new IllegalStateException("Compiled output differs from Thymeleaf for " + template);
+        }
+    }
+
+    @Benchmark
+    public String thymeleaf() {
+        return thymeleafRenderer.render(channel, templateCode, data);
+    }
+
+    @Benchmark
+    public String compiled() {
+        return compiledRenderer.render(channel, templateCode, data);
+    }
+
+    /**
+     * The notification engine wired as in the application, with the context its resolvers need outside Spring.
+     */
+    static SpringTemplateEngine templateEngine(NotificationProperties properties) {
+        GenericApplicationContext context = new GenericApplicationContext();
+        context.refresh();
+
+        SpringTemplateEngine engine = new NotificationTemplateConfig(properties).notificationTemplateEngine();
+        engine.getTemplateResolvers().forEach(resolver ->
+            ((SpringResourceTemplateResolver) resolver).setApplicationContext(context));
+        return engine;
+    }
+}
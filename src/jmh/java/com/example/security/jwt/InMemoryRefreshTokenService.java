@@ -0,0 +1,50 @@
+package com.example.security.jwt;
+
+import com.example.config.AppProperties;
+import com.example.security.exception.InvalidRefreshTokenException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Redis-free stand-in so benchmarks measure token work rather than network round trips.
+ */
+class InMemoryRefreshTokenService extends RefreshTokenService {
+
+    private final Map<String, String> store = new ConcurrentHashMap<>();
+
+    InMemoryRefreshTokenService(JwtSignKeyProvider jwtSignKeyProvider, AppProperties appProperties) {
+        super(jwtSignKeyProvider, appProperties, null);
+    }
+
+    @Override
+    public void store(RefreshTokenClaims refreshClaims) {
+        store.put(refreshClaims.jti(), refreshClaims.familyId());
+    }
+
+    @Override
+    public RefreshTokenClaims validate(String refreshToken) {
+        RefreshTokenClaims refreshClaims = parse(refreshToken);
+        if (!refreshClaims.familyId().equals(store.get(refreshClaims.jti()))) {
+            throw new InvalidRefreshTokenException("Refresh token invalid or expired");
+        }
+        return refreshClaims;
+    }
+
+    @Override
+    public RefreshTokenRotation rotate(RefreshTokenClaims current, RefreshTokenClaims next) {
+        if (!store.remove(current.jti(), current.familyId())) {
+            return RefreshTokenRotation.INVALID;
+        }
+        store.put(next.jti(), next.familyId());
+        return RefreshTokenRotation.ROTATED;
+    }
+
+    @Override
+    public void invalidate(RefreshTokenClaims refreshClaims) {
+        store.remove(refreshClaims.jti());
+    }
+
+    void clear() {
+        store.clear();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.security.jwt;
+
+import com.example.config.AppProperties;
+import com.example.security.dto.JwtResponse;
+import com.example.security.role.Role;
+import com.example.user.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.core.Authentication;
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Authentication hot path: header parsing, token verification and token issuing.
+ * Run with the gc profiler to see allocation per operation next to throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private static final String SECRET = "c2VjcmV0LWtleS1mb3ItYmVuY2htYXJrLW9ubHktMzItYnl0ZXMtbG9uZw==";
+    private static final String REFRESH_SECRET = "cmVmcmVzaC1rZXktZm9yLWJlbmNobWFyay1vbmx5LTMyLWJ5dGVzLWxvbmc=";
+    private static final String EMAIL = "bench@example.com";
+
+    private JwtTokenFromAuthHeaderExtractor headerExtractor;
+    private JwtClaimExtractor claimExtractor;
+    private JwtTokenProvider tokenProvider;
+    private TokenService tokenService;
+    private InMemoryRefreshTokenService refreshTokenService;
+
+    private User user;
+    private Map<String, Object> claims;
+    private String accessToken;
+    private String authorizationHeader;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        AppProperties appProperties = appProperties(false);
+        JwtSignKeyProvider signKeyProvider = new JwtSignKeyProvider(appProperties);
+
+        headerExtractor = headerExtractor();
+        claimExtractor = new JwtClaimExtractor(signKeyProvider);
+        tokenProvider = new JwtTokenProvider(signKeyProvider, appProperties);
+        refreshTokenService = new InMemoryRefreshTokenService(signKeyProvider, appProperties);
+        tokenService = new TokenService(tokenProvider, refreshTokenService);
+
+        user = User.builder()
+            .id(42L)
+            .email(EMAIL)
+            .role(Role.ROLE_USER)
+            .build();
+        claims = Map.of("userId", user.getId(), "role", user.getRole().authority());
+
+        accessToken = tokenProvider.generateToken(claims, EMAIL);
+        authorizationHeader = "Bearer " + accessToken;
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearRefreshTokens() {
+        refreshTokenService.clear();
+    }
+
+    @Benchmark
+    public String extractHeader() {
+        return headerExtractor.extract(authorizationHeader);
+    }
+
+    @Benchmark
+    public JwtAccessClaims verifyClaims() {
+        return claimExtractor.verify(accessToken);
+    }
+
+    @Benchmark
+    public Authentication authenticate(ProviderState state) {
+        return state.authenticationProvider.get(state.request);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return tokenProvider.generateToken(claims, EMAIL);
+    }
+
+    @Benchmark
+    public JwtResponse issueTokens() {
+        return tokenService.issueTokens(user);
+    }
+
+    /**
+     * Full provider path, measured with and without the verified-token cache.
+     */
+    @State(Scope.Benchmark)
+    public static class ProviderState {
+
+        @Param({"false", "true"})
+        public boolean tokenCacheEnabled;
+
+        private JwtAuthenticationProvider authenticationProvider;
+        private MockHttpServletRequest request;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            AppProperties appProperties = appProperties(tokenCacheEnabled);
+            JwtSignKeyProvider signKeyProvider = new JwtSignKeyProvider(appProperties);
+
+            authenticationProvider = new JwtAuthenticationProvider(
+                headerExtractor(),
+                new JwtClaimExtractor(signKeyProvider),
+                new VerifiedTokenCache(appProperties, new SimpleMeterRegistry())
+            );
+
+            String accessToken = new JwtTokenProvider(signKeyProvider, appProperties)
+                .generateToken(Map.of("userId", 42L, "role", Role.ROLE_USER.authority()), EMAIL);
+
+            request = new MockHttpServletRequest();
+            request.addHeader("Authorization", "Bearer " + accessToken);
+        }
+    }
+
+    private static AppProperties appProperties(boolean tokenCacheEnabled) {
+        AppProperties appProperties = new AppProperties();
+        AppProperties.Jwt jwt = appProperties.getJwt();
+        jwt.setSecret(SECRET);
+        jwt.setRefreshSecret(REFRESH_SECRET);
+        jwt.setExpiration(TimeUnit.MINUTES.toMillis(15));
+        jwt.setRefreshExpiration(TimeUnit.DAYS.toMillis(7));
+        jwt.getTokenCache().setEnabled(tokenCacheEnabled);
+        return appProperties;
+    }
+
+    private static JwtTokenFromAuthHeaderExtractor headerExtractor() {
+        JwtTokenFromAuthHeaderExtractor extractor = new JwtTokenFromAuthHeaderExtractor();
+        ReflectionTestUtils.setField(extractor, "jwtHttpRequestHeader", "Authorization");
+        return extractor;
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.config;
 
 import jakarta.validation.constraints.NotBlank;
+import java.util.HashMap;
+import java.util.Map;
 import jakarta.validation.constraints.NotNull;
 import lombok.Getter;
 import lombok.Setter;
@@ -57,7 +59,7 @@ public class AppProperties {
 
     @Getter @Setter
     public static class Jwt {
-        @NotBlank
+        // HMAC secret for access tokens, required only when algorithm is HS256
         private String secret;
 
         @NotBlank
@@ -68,6 +70,49 @@ public class AppProperties {
 
         @NotNull
         private Long refreshExpiration;
+
+        @NotBlank
+        private String keyId = "primary";
+
+        @NotBlank
+        private String refreshKeyId = "primary";
+
+        // Retired secrets (kid -> secret) still accepted for verification during rotation
+        private Map<String, String> previousKeys = new HashMap<>();
+
+        private Map<String, String> previousRefreshKeys = new HashMap<>();
+
+        // Access token signing algorithm; ES256 and EdDSA sign with privateKey and publish publicKey via JWKS
+        @NotNull
+        private SigningAlgorithm algorithm = SigningAlgorithm.HS256;
+
+        // PEM or base64 PKCS#8 private key
+        private String privateKey;
+
+        // PEM or base64 X.509 public key
+        private String publicKey;
+
+        // Retired public keys (kid -> PEM) still accepted and published during rotation
+        private Map<String, String> previousPublicKeys = new HashMap<>();
+
+        @NotNull
+        private Long jwksMaxAgeSeconds = 300L;
+
+        private final TokenCache tokenCache = new TokenCache();
+    }
+
+    public enum SigningAlgorithm {
+        HS256,
+        ES256,
+        EdDSA
+    }
+
+    @Getter @Setter
+    public static class TokenCache {
+        private boolean enabled = false;
+
+        @NotNull
+        private Long maxSize = 10_000L;
     }
 
     @Getter @Setter
@@ -83,6 +128,10 @@ public class AppProperties {
 
         @NotNull
         private Long expirationMinutes = 5L;
+
+        // Wrong guesses allowed before the OTP is discarded
+        @NotNull
+        private Integer maxAttempts = 5;
     }
 
     @Getter @Setter
@@ -0,0 +1,62 @@
+package com.example.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Streams JFR {@code jdk.VirtualThreadPinned} events into the {@code jvm.threads.virtual.pinned} timer.
+ * A virtual thread is pinned when it blocks inside {@code synchronized} or native code and holds its carrier.
+ */
+@Slf4j
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    // Same threshold the JDK applies by default
+    private static final Duration PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private final Timer pinnedTimer;
+    private RecordingStream recordingStream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        this.pinnedTimer = Timer.builder("jvm.threads.virtual.pinned")
+            .description("Time virtual threads spent pinned to their carrier thread")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        recordingStream = new RecordingStream();
+        recordingStream.enable(PINNED_EVENT).withThreshold(PINNED_THRESHOLD).withStackTrace();
+        recordingStream.onEvent(PINNED_EVENT, event -> {
+            pinnedTimer.record(event.getDuration());
+            if (log.isDebugEnabled() && event.getStackTrace() != null && !event.getStackTrace().getFrames().isEmpty()) {
+                log.debug("Virtual thread pinned for {} at {}",
+                    event.getDuration(), event.getStackTrace().getFrames().get(0).getMethod().getName());
+            }
+        });
+        recordingStream.startAsync();
+        log.info("Virtual thread pinning monitor started (threshold {} ms)", PINNED_THRESHOLD.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        if (recordingStream != null) {
+            recordingStream.close();
+            recordingStream = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return recordingStream != null;
+    }
+}
@@ -1,7 +1,10 @@
 package com.example.config.notification;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -9,6 +12,7 @@ import java.util.concurrent.Executor;
 
 /**
  * Async configuration for notification processing.
+ * The executor follows {@code spring.threads.virtual.enabled}.
  */
 @Configuration
 @EnableAsync
@@ -19,6 +23,7 @@ public class AsyncConfig {
      * Used for fire-and-forget operations within the notification service.
      */
     @Bean(name = "notificationTaskExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
     public Executor notificationTaskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(5);
@@ -30,4 +35,16 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * One virtual thread per task; blocking I/O parks the virtual thread instead of a pooled carrier.
+     */
+    @Bean(name = "notificationTaskExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public Executor virtualNotificationTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("notification-");
+        executor.setVirtualThreads(true);
+        executor.setTaskTerminationTimeout(30_000);
+        return executor;
+    }
 }
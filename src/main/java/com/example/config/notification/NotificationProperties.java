@@ -1,6 +1,8 @@
 package com.example.config.notification;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import lombok.Getter;
 import lombok.Setter;
@@ -23,16 +25,41 @@ public class NotificationProperties {
      */
     private Map<String, RateLimitConfig> rateLimit = new HashMap<>();
 
+    /**
+     * Node-local leasing of rate limit quota
+     */
+    private RateLimitLeaseConfig rateLimitLease = new RateLimitLeaseConfig();
+
     /**
      * Retry configuration
      */
     private RetryConfig retry = new RetryConfig();
 
+    /**
+     * Sweeper that re-enqueues retries whose message never came back from the broker
+     */
+    private RetrySweepConfig retrySweep = new RetrySweepConfig();
+
     /**
      * RabbitMQ queue configuration
      */
     private QueueConfig queue = new QueueConfig();
 
+    /**
+     * Transactional outbox relay configuration
+     */
+    private OutboxConfig outbox = new OutboxConfig();
+
+    /**
+     * Batch send configuration
+     */
+    private BatchConfig batch = new BatchConfig();
+
+    /**
+     * Pool of connected SMTP transports for the email provider
+     */
+    private SmtpPoolConfig smtpPool = new SmtpPoolConfig();
+
     /**
      * Twilio provider configuration
      */
@@ -62,6 +89,41 @@ public class NotificationProperties {
         private int windowSeconds = 3600;
     }
 
+    @Getter
+    @Setter
+    public static class RateLimitLeaseConfig {
+        /**
+         * Spend quota leased from Redis locally instead of calling Redis on every send
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum permits leased per user and channel in one Redis call.
+         * The first lease for a key is one permit; each refill within the lease TTL doubles it up to this size.
+         */
+        private int leaseSize = 20;
+
+        /**
+         * How long a node may hold a lease before returning unspent permits
+         */
+        private long leaseTtlMs = 5000;
+
+        /**
+         * Fraction of the limit a user may exceed so leases can be granted whole near the limit
+         */
+        private double maxOvershoot = 0.0;
+
+        /**
+         * Maximum number of leases held per node
+         */
+        private long maxLeases = 100_000;
+
+        /**
+         * Number of lock stripes guarding lease refills
+         */
+        private int stripes = 256;
+    }
+
     @Getter
     @Setter
     public static class RetryConfig {
@@ -84,6 +146,41 @@ public class NotificationProperties {
          * Maximum backoff delay in milliseconds
          */
         private long maxBackoffMs = 3600000; // 1 hour
+
+        /**
+         * Delays of the retry wait queues; a backoff is rounded up to the next tier
+         */
+        private List<Long> delayTiersMs = new ArrayList<>(List.of(
+                1_000L, 5_000L, 30_000L, 120_000L, 600_000L, 1_800_000L, 3_600_000L));
+    }
+
+    @Getter
+    @Setter
+    public static class RetrySweepConfig {
+        /**
+         * Whether the retry sweeper runs on this node
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay between sweeps in milliseconds
+         */
+        private long intervalMs = 60_000;
+
+        /**
+         * How long past next_retry_at a RETRY row must be before it counts as lost
+         */
+        private long graceMs = 300_000;
+
+        /**
+         * Rows locked and re-enqueued per transaction
+         */
+        private int batchSize = 200;
+
+        /**
+         * Upper bound on pages per sweep so one node cannot hold the scheduler indefinitely
+         */
+        private int maxBatches = 50;
     }
 
     @Getter
@@ -104,10 +201,141 @@ public class NotificationProperties {
          */
         private String dlqQueue = "notification.dlq";
 
+        /**
+         * Headers exchange routing retries to their delay tier queue
+         */
+        private String retryExchange = "notification.retry";
+
         /**
          * Prefetch count for workers
          */
         private int prefetchCount = 1;
+
+        /**
+         * After this long in PROCESSING a notification is assumed abandoned by its worker and may be claimed again
+         */
+        private long processingTimeoutMs = 300_000;
+
+        /**
+         * Consumer settings per channel, keyed by lowercase channel name (email, sms, whatsapp, push, in_app)
+         */
+        private Map<String, ConsumerConfig> consumers = new HashMap<>();
+    }
+
+    @Getter
+    @Setter
+    public static class ConsumerConfig {
+        /**
+         * Consumers started for the channel queue
+         */
+        private int concurrency = 1;
+
+        /**
+         * Upper bound the container may scale to while the queue has a backlog
+         */
+        private int maxConcurrency = 1;
+
+        /**
+         * Unacknowledged messages per consumer; falls back to queue.prefetch-count when not set
+         */
+        private Integer prefetchCount;
+
+        /**
+         * Consecutive deliveries without an empty poll before another consumer is started
+         */
+        private int consecutiveActiveTrigger = 10;
+
+        /**
+         * Consecutive empty polls before an extra consumer is stopped
+         */
+        private int consecutiveIdleTrigger = 10;
+
+        /**
+         * Minimum time between starting two extra consumers
+         */
+        private long startConsumerMinIntervalMs = 10_000;
+
+        /**
+         * Messages handed to a batch listener at once (PUSH and IN_APP workers)
+         */
+        private int batchSize = 1;
+
+        /**
+         * How long a batch listener waits for more messages before processing a partial batch
+         */
+        private long batchReceiveTimeoutMs = 100;
+    }
+
+    @Getter
+    @Setter
+    public static class OutboxConfig {
+        /**
+         * Rows locked and published per relay transaction
+         */
+        private int batchSize = 100;
+
+        /**
+         * Delay between relay polls in milliseconds
+         */
+        private long pollIntervalMs = 1000;
+
+        /**
+         * Maximum time to wait for publisher confirms of one batch
+         */
+        private long confirmTimeoutMs = 5000;
+
+        /**
+         * Broker rejections (nack, return or confirm timeout) after which a row is parked and no longer relayed
+         */
+        private int maxAttempts = 20;
+    }
+
+    @Getter
+    @Setter
+    public static class BatchConfig {
+        /**
+         * Recipients persisted per transaction (keep a multiple of hibernate.jdbc.batch_size)
+         */
+        private int chunkSize = 500;
+    }
+
+    @Getter
+    @Setter
+    public static class SmtpPoolConfig {
+        /**
+         * Send over pooled connections; when false every email opens its own connection
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum open SMTP connections (keep at or above the email consumer max-concurrency)
+         */
+        private int maxSize = 10;
+
+        /**
+         * Messages sent over one connection before it is closed and replaced
+         */
+        private int maxMessagesPerConnection = 100;
+
+        /**
+         * Idle connections older than this are closed by the evictor
+         */
+        private long maxIdleMs = 60_000;
+
+        /**
+         * Connections idle longer than this are checked with NOOP before reuse
+         */
+        private long validateAfterIdleMs = 5_000;
+
+        /**
+         * Maximum time to wait for a free connection when the pool is exhausted
+         */
+        private long borrowTimeoutMs = 10_000;
+
+        /**
+         * Delay between idle eviction runs in milliseconds
+         */
+        private long evictIntervalMs = 30_000;
     }
 
     @Getter
@@ -137,6 +365,31 @@ public class NotificationProperties {
          * Whether Twilio is enabled
          */
         private boolean enabled = false;
+
+        /**
+         * Base URL of the Twilio REST API (override to point at a stand-in)
+         */
+        private String apiBaseUrl = "https://api.twilio.com";
+
+        /**
+         * Maximum concurrent requests to the Twilio API per account
+         */
+        private int maxInFlight = 50;
+
+        /**
+         * Maximum time a send waits for a free in-flight slot before failing as retriable
+         */
+        private long acquireTimeoutMs = 5_000;
+
+        /**
+         * Connect timeout for the Twilio API in milliseconds
+         */
+        private long connectTimeoutMs = 5_000;
+
+        /**
+         * Response timeout for one Twilio API request in milliseconds
+         */
+        private long requestTimeoutMs = 15_000;
     }
 
     @Getter
@@ -165,5 +418,22 @@ public class NotificationProperties {
          * Whether to cache templates
          */
         private boolean cacheEnabled = true;
+
+        /**
+         * When templates are rendered: on the request thread or in the channel worker
+         */
+        private RenderMode renderMode = RenderMode.EAGER;
+    }
+
+    public enum RenderMode {
+        /**
+         * Render when the notification is created and ship the content through the queue
+         */
+        EAGER,
+
+        /**
+         * Enqueue template code and data only; the channel worker renders just before sending
+         */
+        DEFERRED
     }
 }
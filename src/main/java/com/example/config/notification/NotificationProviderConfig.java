@@ -3,7 +3,6 @@ package com.example.config.notification;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
-import com.twilio.Twilio;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -14,7 +13,7 @@ import java.io.IOException;
 import java.io.InputStream;
 
 /**
- * Configuration for external notification providers (Twilio, Firebase).
+ * Configuration for external notification providers (Firebase).
  */
 @Configuration
 @RequiredArgsConstructor
@@ -23,27 +22,6 @@ public class NotificationProviderConfig {
 
     private final NotificationProperties properties;
 
-    /**
-     * Initialize Twilio SDK with credentials.
-     */
-    @PostConstruct
-    public void initializeTwilio() {
-        if (properties.getTwilio().isEnabled()) {
-            String accountSid = properties.getTwilio().getAccountSid();
-            String authToken = properties.getTwilio().getAuthToken();
-
-            if (accountSid != null && !accountSid.isBlank()
-                    && authToken != null && !authToken.isBlank()) {
-                Twilio.init(accountSid, authToken);
-                log.info("Twilio SDK initialized successfully");
-            } else {
-                log.warn("Twilio is enabled but credentials are missing. SMS/WhatsApp notifications will fail.");
-            }
-        } else {
-            log.info("Twilio is disabled. SMS/WhatsApp notifications will not be sent.");
-        }
-    }
-
     /**
      * Initialize Firebase Admin SDK with service account.
      */
@@ -0,0 +1,67 @@
+package com.example.config.notification;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Schema changes that {@code ddl-auto: update} cannot express.
+ * Moves the pooled id sequences past rows written while the tables still used identity columns,
+ * and creates partial indexes, which JPA {@code @Index} cannot declare.
+ * Depends on the {@link EntityManagerFactory} so it runs after Hibernate has created the tables and sequences.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationSchemaInitializer {
+
+    private static final String ALIGN_SEQUENCE_SQL =
+        "SELECT setval('%1$s', GREATEST((SELECT COALESCE(MAX(id), 0) FROM %2$s) + 1, "
+            + "(SELECT last_value FROM %1$s)), true)";
+
+    // Only RETRY rows are indexed, so the retry sweeper reads just the due rows however large the table grows
+    private static final String RETRY_DUE_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_notification_retry_due ON notifications (next_retry_at) "
+            + "WHERE status = 'RETRY'";
+
+    // PROCESSING rows are few at any moment, so the sweep for stranded ones stays cheap as well
+    private static final String PROCESSING_STALE_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_notification_processing_stale ON notifications (updated_at) "
+            + "WHERE status = 'PROCESSING'";
+
+    // The relay reads unparked rows in id order; parked rows stay out of its way however many pile up
+    private static final String OUTBOX_UNPARKED_INDEX_SQL =
+        "CREATE INDEX IF NOT EXISTS idx_notification_outbox_unparked ON notification_outbox (id) "
+            + "WHERE parked_at IS NULL";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+
+    @PostConstruct
+    void initialize() {
+        align("notification_seq", "notifications");
+        align("notification_outbox_seq", "notification_outbox");
+        createIndex("idx_notification_retry_due", RETRY_DUE_INDEX_SQL);
+        createIndex("idx_notification_processing_stale", PROCESSING_STALE_INDEX_SQL);
+        createIndex("idx_notification_outbox_unparked", OUTBOX_UNPARKED_INDEX_SQL);
+    }
+
+    private void align(String sequence, String table) {
+        try {
+            jdbcTemplate.queryForObject(ALIGN_SEQUENCE_SQL.formatted(sequence, table), Long.class);
+        } catch (Exception e) {
+            log.warn("Could not align sequence {} with table {}: {}", sequence, table, e.getMessage());
+        }
+    }
+
+    private void createIndex(String name, String sql) {
+        try {
+            jdbcTemplate.execute(sql);
+        } catch (Exception e) {
+            log.warn("Could not create index {}: {}", name, e.getMessage());
+        }
+    }
+}
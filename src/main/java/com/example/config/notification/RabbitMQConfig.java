@@ -10,10 +10,15 @@ import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.boot.autoconfigure.thread.Threading;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,7 +28,13 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class RabbitMQConfig {
 
+    /**
+     * Header carrying the retry tier delay. Plain name because headers exchanges ignore x- headers when matching.
+     */
+    public static final String RETRY_DELAY_HEADER = "retry-delay-ms";
+
     private final NotificationProperties properties;
+    private final Environment environment;
 
     // ==================== Message Converter ====================
 
@@ -38,21 +49,102 @@ public class RabbitMQConfig {
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate template = new RabbitTemplate(connectionFactory);
         template.setMessageConverter(jsonMessageConverter());
+        // The broker returns a message no queue is bound for; the outbox relay keeps such rows as rejected
+        template.setMandatory(true);
         return template;
     }
 
     @Bean
     public SimpleRabbitListenerContainerFactory rabbitListenerContainerFactory(
             ConnectionFactory connectionFactory) {
+        return baseListenerContainerFactory(connectionFactory);
+    }
+
+    private SimpleRabbitListenerContainerFactory baseListenerContainerFactory(ConnectionFactory connectionFactory) {
         SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
         factory.setConnectionFactory(connectionFactory);
         factory.setMessageConverter(jsonMessageConverter());
         factory.setPrefetchCount(properties.getQueue().getPrefetchCount());
         factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
         factory.setDefaultRequeueRejected(false);
+        if (Threading.VIRTUAL.isActive(environment)) {
+            factory.setTaskExecutor(new VirtualThreadTaskExecutor("notification-consumer-"));
+        }
         return factory;
     }
 
+    // ==================== Per-Channel Listener Factories ====================
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory emailListenerContainerFactory(ConnectionFactory connectionFactory) {
+        return channelListenerContainerFactory(connectionFactory, NotificationChannel.EMAIL);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory smsListenerContainerFactory(ConnectionFactory connectionFactory) {
+        return channelListenerContainerFactory(connectionFactory, NotificationChannel.SMS);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory whatsappListenerContainerFactory(ConnectionFactory connectionFactory) {
+        return channelListenerContainerFactory(connectionFactory, NotificationChannel.WHATSAPP);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory pushListenerContainerFactory(ConnectionFactory connectionFactory) {
+        return batchListenerContainerFactory(connectionFactory, NotificationChannel.PUSH);
+    }
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory inAppListenerContainerFactory(ConnectionFactory connectionFactory) {
+        return batchListenerContainerFactory(connectionFactory, NotificationChannel.IN_APP);
+    }
+
+    /**
+     * Listener factory tuned for one channel. Between concurrency and max-concurrency the container
+     * adds consumers while deliveries keep arriving back to back (a backlog) and stops them once polls come back empty.
+     */
+    private SimpleRabbitListenerContainerFactory channelListenerContainerFactory(
+            ConnectionFactory connectionFactory, NotificationChannel channel) {
+        NotificationProperties.ConsumerConfig consumer = consumerConfig(channel);
+
+        SimpleRabbitListenerContainerFactory factory = baseListenerContainerFactory(connectionFactory);
+        if (consumer.getPrefetchCount() != null) {
+            factory.setPrefetchCount(consumer.getPrefetchCount());
+        }
+        factory.setConcurrentConsumers(consumer.getConcurrency());
+        factory.setMaxConcurrentConsumers(Math.max(consumer.getConcurrency(), consumer.getMaxConcurrency()));
+        factory.setConsecutiveActiveTrigger(consumer.getConsecutiveActiveTrigger());
+        factory.setConsecutiveIdleTrigger(consumer.getConsecutiveIdleTrigger());
+        factory.setStartConsumerMinInterval(consumer.getStartConsumerMinIntervalMs());
+        return factory;
+    }
+
+    /**
+     * Channel factory whose listeners receive up to batch-size messages at once and acknowledge them together.
+     */
+    private SimpleRabbitListenerContainerFactory batchListenerContainerFactory(
+            ConnectionFactory connectionFactory, NotificationChannel channel) {
+        NotificationProperties.ConsumerConfig consumer = consumerConfig(channel);
+
+        SimpleRabbitListenerContainerFactory factory = channelListenerContainerFactory(connectionFactory, channel);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(consumer.getBatchSize());
+        factory.setReceiveTimeout(consumer.getBatchReceiveTimeoutMs());
+        // A batch can only fill up if the broker may push that many unacknowledged messages
+        int prefetch = consumer.getPrefetchCount() != null
+                ? consumer.getPrefetchCount()
+                : properties.getQueue().getPrefetchCount();
+        factory.setPrefetchCount(Math.max(prefetch, consumer.getBatchSize()));
+        return factory;
+    }
+
+    private NotificationProperties.ConsumerConfig consumerConfig(NotificationChannel channel) {
+        return properties.getQueue().getConsumers()
+                .getOrDefault(channel.name().toLowerCase(), new NotificationProperties.ConsumerConfig());
+    }
+
     // ==================== Exchanges ====================
 
     @Bean
@@ -71,6 +163,43 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    @Bean
+    public HeadersExchange retryExchange() {
+        return ExchangeBuilder
+                .headersExchange(properties.getQueue().getRetryExchange())
+                .durable(true)
+                .build();
+    }
+
+    // ==================== Retry Delay Queues ====================
+
+    /**
+     * One wait queue per retry delay tier. Messages sit there unconsumed until the queue TTL expires,
+     * then dead-letter back to the notification exchange. No dead-letter routing key is set, so they keep
+     * the channel routing key they were published with and land on their original channel queue.
+     */
+    @Bean
+    public Declarables retryDelayQueues() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (Long delayMs : properties.getRetry().getDelayTiersMs()) {
+            Queue queue = QueueBuilder
+                    .durable(retryQueueName(delayMs))
+                    .ttl((int) Math.min(delayMs, Integer.MAX_VALUE))
+                    .deadLetterExchange(properties.getQueue().getExchange())
+                    .build();
+            declarables.add(queue);
+            declarables.add(BindingBuilder
+                    .bind(queue)
+                    .to(retryExchange())
+                    .where(RETRY_DELAY_HEADER).matches(String.valueOf(delayMs)));
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String retryQueueName(long delayMs) {
+        return "notification.retry." + delayMs + "ms";
+    }
+
     // ==================== Dead Letter Queue ====================
 
     @Bean
@@ -0,0 +1,30 @@
+package com.example.notification.handler;
+
+import com.example.notification.repository.NotificationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes content rendered by a channel worker back to the notification row for audit,
+ * off the worker thread so the send path never waits on it.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RenderedContentWriter {
+
+    private final NotificationRepository notificationRepository;
+
+    @Async("notificationTaskExecutor")
+    @Transactional
+    public void writeBack(Long notificationId, String renderedContent) {
+        try {
+            notificationRepository.updateRenderedContent(notificationId, renderedContent);
+        } catch (Exception e) {
+            log.warn("Failed to store rendered content for notification {}: {}", notificationId, e.getMessage());
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.example.notification.handler;
 
 import com.example.config.notification.NotificationProperties;
+import com.example.config.notification.RabbitMQConfig;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.entity.DeadLetterQueue;
 import com.example.notification.model.entity.Notification;
@@ -13,8 +14,17 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Handler for retry logic with exponential backoff.
@@ -71,15 +81,17 @@ public class RetryHandler {
             return false;
         }
 
-        // Calculate next retry time with exponential backoff
-        LocalDateTime nextRetryTime = calculateNextRetryTime(currentRetry);
+        // Exponential backoff rounded up to its wait queue tier, so next_retry_at is when the broker
+        // actually redelivers and the retry sweeper can tell a lost message from a waiting one
+        long delayMs = delayTier(calculateBackoffMs(currentRetry));
+        LocalDateTime nextRetryTime = LocalDateTime.now().plus(Duration.ofMillis(delayMs));
 
         // Update notification for retry
         notification.incrementRetry(nextRetryTime);
         notificationRepository.save(notification);
 
         // Schedule retry by re-publishing with delay
-        scheduleRetry(message, nextRetryTime, currentRetry + 1);
+        scheduleRetry(message, delayMs, nextRetryTime, currentRetry + 1);
 
         log.info("Scheduled retry {} of {} for notification {} at {}",
                 currentRetry + 1, maxAttempts, notification.getId(), nextRetryTime);
@@ -87,6 +99,60 @@ public class RetryHandler {
         return true;
     }
 
+    /**
+     * Batch form of {@link #handleFailure}: the same retry policy, written back in one transaction.
+     * Rows that share an outcome, retry time and error are updated by one bulk UPDATE, DLQ entries are copied
+     * from the failed rows by one INSERT per group, and every retry is published after the commit.
+     * A batch that fails for one reason therefore costs a few statements rather than one transaction per row.
+     */
+    @Transactional
+    public void handleFailures(List<Failure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int maxAttempts = properties.getRetry().getMaxAttempts();
+        Map<RetryGroup, List<Long>> retries = new LinkedHashMap<>();
+        Map<FailedGroup, List<Long>> failed = new LinkedHashMap<>();
+
+        for (Failure failure : failures) {
+            Notification notification = failure.notification();
+            int currentRetry = notification.getRetryCount();
+
+            if (failure.errorType() == ErrorType.PERMANENT || currentRetry >= maxAttempts) {
+                String reason = failure.errorType() == ErrorType.PERMANENT
+                        ? "Permanent error: " + failure.errorMessage()
+                        : "Max retry attempts reached. Last error: " + failure.errorMessage();
+                NotificationStatus status = currentRetry >= maxAttempts
+                        ? NotificationStatus.FAILED_MAX_RETRY
+                        : NotificationStatus.FAILED_PERMANENT;
+                failed.computeIfAbsent(new FailedGroup(status, reason, failure.errorCode()), group -> new ArrayList<>())
+                        .add(notification.getId());
+                continue;
+            }
+
+            // Backoff rounded up to its tier and taken from one clock reading, so a tier shares one retry time
+            long delayMs = delayTier(calculateBackoffMs(currentRetry));
+            LocalDateTime nextRetryTime = now.plus(Duration.ofMillis(delayMs));
+            retries.computeIfAbsent(new RetryGroup(nextRetryTime, failure.errorMessage(), failure.errorCode()),
+                    group -> new ArrayList<>()).add(notification.getId());
+            scheduleRetry(failure.message(), delayMs, nextRetryTime, currentRetry + 1);
+        }
+
+        retries.forEach((group, ids) -> notificationRepository.markRetryScheduled(
+                ids, NotificationStatus.RETRY, group.nextRetryAt(), group.errorMessage(), group.errorCode(), now));
+        failed.forEach((group, ids) -> {
+            notificationRepository.markFailed(ids, group.status(), group.reason(), group.errorCode(), now);
+            deadLetterQueueRepository.insertFromNotifications(ids, group.reason(), group.errorCode(), now);
+        });
+
+        log.info("Handled {} failed notifications: {} scheduled for retry in {} updates, {} moved to DLQ in {} updates",
+                failures.size(),
+                retries.values().stream().mapToInt(List::size).sum(), retries.size(),
+                failed.values().stream().mapToInt(List::size).sum(), failed.size());
+    }
+
     /**
      * Handle a successful notification delivery.
      */
@@ -101,12 +167,31 @@ public class RetryHandler {
     }
 
     /**
-     * Calculate the next retry time using exponential backoff.
+     * Claim notifications for a worker with one conditional UPDATE and no lock held afterwards.
+     * A row stuck in PROCESSING for longer than the processing timeout is claimable again.
+     * A message redelivered before that misses the claim and is acknowledged, so the {@link RetrySweeper}
+     * re-enqueues such rows once the timeout has passed; a worker that died mid-send does not strand it.
+     *
+     * @param notificationIds the notifications to claim
+     * @return the ids this worker now owns; the rest are finished or being sent by another worker
+     */
+    public List<Long> claimForProcessing(Collection<Long> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return List.of();
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime staleBefore = now.minus(Duration.ofMillis(properties.getQueue().getProcessingTimeoutMs()));
+        return notificationRepository.claimForProcessing(notificationIds, now, staleBefore);
+    }
+
+    /**
+     * Calculate the retry delay using exponential backoff.
      *
      * @param currentRetryCount the current retry count (0-based)
-     * @return the time for the next retry
+     * @return the delay before the next retry in milliseconds
      */
-    private LocalDateTime calculateNextRetryTime(int currentRetryCount) {
+    private long calculateBackoffMs(int currentRetryCount) {
         long initialBackoffMs = properties.getRetry().getInitialBackoffMs();
         double multiplier = properties.getRetry().getMultiplier();
         long maxBackoffMs = properties.getRetry().getMaxBackoffMs();
@@ -115,9 +200,7 @@ public class RetryHandler {
         long backoffMs = (long) (initialBackoffMs * Math.pow(multiplier, currentRetryCount));
 
         // Cap at maximum backoff
-        backoffMs = Math.min(backoffMs, maxBackoffMs);
-
-        return LocalDateTime.now().plusNanos(backoffMs * 1_000_000);
+        return Math.min(backoffMs, maxBackoffMs);
     }
 
     /**
@@ -155,35 +238,61 @@ public class RetryHandler {
     }
 
     /**
-     * Schedule a retry by re-publishing the message.
-     * Uses RabbitMQ message TTL for delay.
+     * Schedule a retry by publishing the message to the delay queue of its backoff tier.
+     * The message waits there at no cost and is dead-lettered back to its channel queue when the tier TTL expires.
+     * The publish runs after the RETRY status commits, so a rolled back failure never leaves a retry in flight;
+     * a publish that fails after the commit is picked up by the {@link RetrySweeper}.
      */
-    private void scheduleRetry(NotificationMessage message, LocalDateTime nextRetryTime, int retryCount) {
+    private void scheduleRetry(NotificationMessage message, long tierMs, LocalDateTime nextRetryTime, int retryCount) {
         // Update retry count in message
         message.setRetryCount(retryCount);
 
-        // Calculate delay in milliseconds
-        long delayMs = java.time.Duration.between(LocalDateTime.now(), nextRetryTime).toMillis();
-
-        // For simplicity, we'll re-publish immediately and let the worker check the retry time
-        // In production, you might use RabbitMQ delayed message plugin or separate retry queues
-        String routingKey = message.getChannel().getRoutingKey();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publishRetry(message, tierMs, nextRetryTime, retryCount);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                try {
+                    publishRetry(message, tierMs, nextRetryTime, retryCount);
+                } catch (Exception e) {
+                    log.warn("Failed to publish retry for notification {}, left to the retry sweeper: {}",
+                            message.getNotificationId(), e.getMessage());
+                }
+            }
+        });
+    }
 
+    private void publishRetry(NotificationMessage message, long tierMs, LocalDateTime nextRetryTime, int retryCount) {
+        // The channel routing key is kept so the expired message dead-letters back to the channel queue
         rabbitTemplate.convertAndSend(
-                properties.getQueue().getExchange(),
-                routingKey,
+                properties.getQueue().getRetryExchange(),
+                message.getChannel().getRoutingKey(),
                 message,
                 m -> {
-                    // Set message header with retry info
+                    m.getMessageProperties().setHeader(RabbitMQConfig.RETRY_DELAY_HEADER, String.valueOf(tierMs));
                     m.getMessageProperties().setHeader("x-retry-count", retryCount);
                     m.getMessageProperties().setHeader("x-next-retry-at", nextRetryTime.toString());
-                    // Set message delay if using delayed message plugin
-                    if (delayMs > 0) {
-                        m.getMessageProperties().setDelay((int) Math.min(delayMs, Integer.MAX_VALUE));
-                    }
                     return m;
                 }
         );
+
+        log.debug("Notification {} waits {} ms in retry tier", message.getNotificationId(), tierMs);
+    }
+
+    /**
+     * Smallest configured tier that covers the delay, so a retry never fires early; the largest tier caps it.
+     */
+    private long delayTier(long delayMs) {
+        List<Long> tiers = properties.getRetry().getDelayTiersMs();
+        long tier = Collections.max(tiers);
+        for (Long candidate : tiers) {
+            if (candidate >= delayMs && candidate < tier) {
+                tier = candidate;
+            }
+        }
+        return tier;
     }
 
     /**
@@ -200,4 +309,21 @@ public class RetryHandler {
     public NotificationProperties.RetryConfig getRetryConfig() {
         return properties.getRetry();
     }
+
+    /**
+     * A notification the provider did not deliver, with the provider's verdict
+     */
+    public record Failure(
+            Notification notification,
+            NotificationMessage message,
+            String errorMessage,
+            String errorCode,
+            ErrorType errorType) {
+    }
+
+    private record RetryGroup(LocalDateTime nextRetryAt, String errorMessage, String errorCode) {
+    }
+
+    private record FailedGroup(NotificationStatus status, String reason, String errorCode) {
+    }
 }
@@ -0,0 +1,188 @@
+package com.example.notification.handler;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.entity.Notification;
+import com.example.notification.model.entity.NotificationOutbox;
+import com.example.notification.model.enums.NotificationStatus;
+import com.example.notification.publisher.NotificationOutboxRelay;
+import com.example.notification.repository.NotificationOutboxRepository;
+import com.example.notification.repository.NotificationRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+/**
+ * Safety net for notifications whose message was lost between the database and the broker,
+ * e.g. a retry publish that failed after the RETRY status was committed (the publish runs after commit),
+ * or a retry message dropped by the broker.
+ * Rows still in RETRY a grace period after next_retry_at are locked in pages with SKIP LOCKED,
+ * so every node can sweep at once, and re-enqueued through the outbox.
+ * Rows left in PROCESSING past the processing timeout are swept the same way: their worker died,
+ * or their redelivered message was acknowledged while the claim still saw the row as taken.
+ * They go back to RETRY first, so the new message can claim them.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "notification.retry-sweep", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RetrySweeper {
+
+    private static final TypeReference<Map<String, Object>> TEMPLATE_DATA_TYPE = new TypeReference<>() {};
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationOutboxRelay outboxRelay;
+    private final NotificationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter sweptCounter;
+    private final Counter strandedCounter;
+
+    public RetrySweeper(
+            NotificationRepository notificationRepository,
+            NotificationOutboxRepository outboxRepository,
+            NotificationOutboxRelay outboxRelay,
+            NotificationProperties properties,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.notificationRepository = notificationRepository;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweptCounter = Counter.builder("notification.retry.swept")
+                .description("Retries re-enqueued by the sweeper after their message went missing")
+                .register(meterRegistry);
+        this.strandedCounter = Counter.builder("notification.processing.swept")
+                .description("Notifications stranded in PROCESSING re-enqueued by the sweeper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(
+            initialDelayString = "${notification.retry-sweep.interval-ms:60000}",
+            fixedDelayString = "${notification.retry-sweep.interval-ms:60000}")
+    public void sweep() {
+        NotificationProperties.RetrySweepConfig config = properties.getRetrySweep();
+        long graceMs = config.getGraceMs();
+        long processingTimeoutMs = properties.getQueue().getProcessingTimeoutMs();
+
+        int lost = sweepAll(config, sweptCounter, "lost retries", (now, limit) ->
+                notificationRepository.findNotificationsReadyForRetry(now.minus(Duration.ofMillis(graceMs)), limit));
+        if (lost > 0) {
+            log.warn("Retry sweep re-enqueued {} notifications whose retry message was lost", lost);
+        }
+
+        int stranded = sweepAll(config, strandedCounter, "stranded notifications", (now, limit) ->
+                notificationRepository.findStaleProcessing(now.minus(Duration.ofMillis(processingTimeoutMs)), limit));
+        if (stranded > 0) {
+            log.warn("Retry sweep re-enqueued {} notifications stranded in PROCESSING", stranded);
+        }
+    }
+
+    private int sweepAll(
+            NotificationProperties.RetrySweepConfig config,
+            Counter counter,
+            String description,
+            BiFunction<LocalDateTime, Integer, List<Notification>> lockPage) {
+        int total = 0;
+        try {
+            for (int batch = 0; batch < config.getMaxBatches(); batch++) {
+                int swept = sweepBatch(config.getBatchSize(), lockPage);
+                counter.increment(swept);
+                total += swept;
+                if (swept < config.getBatchSize()) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Sweep of {} failed after re-enqueueing {} notifications: {}",
+                    description, total, e.getMessage(), e);
+        }
+        return total;
+    }
+
+    private int sweepBatch(int batchSize, BiFunction<LocalDateTime, Integer, List<Notification>> lockPage) {
+        Integer swept = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+
+            List<Notification> page = lockPage.apply(now, batchSize);
+            if (page.isEmpty()) {
+                return 0;
+            }
+
+            List<NotificationOutbox> outboxRows = new ArrayList<>(page.size());
+            for (Notification notification : page) {
+                outboxRows.add(toOutbox(toMessage(notification)));
+                // A PROCESSING row is released so the new message can claim it; the retry count is kept,
+                // since no provider failure was recorded for the lost attempt
+                notification.setStatus(NotificationStatus.RETRY);
+                // Restarts the grace period, so the row is swept again only if this message goes missing too
+                notification.setNextRetryAt(now);
+            }
+            outboxRepository.saveAll(outboxRows);
+
+            outboxRelay.triggerAfterCommit();
+            return page.size();
+        });
+
+        return swept == null ? 0 : swept;
+    }
+
+    private NotificationMessage toMessage(Notification notification) {
+        return NotificationMessage.builder()
+                .notificationId(notification.getId())
+                .userId(notification.getUserId())
+                .channel(notification.getChannel())
+                .templateCode(notification.getTemplateCode())
+                .recipient(notification.getRecipient())
+                .subject(notification.getSubject())
+                .renderedContent(notification.getRenderedContent())
+                .templateData(readTemplateData(notification))
+                .retryCount(notification.getRetryCount())
+                .build();
+    }
+
+    private Map<String, Object> readTemplateData(Notification notification) {
+        if (notification.getTemplateData() == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(notification.getTemplateData(), TEMPLATE_DATA_TYPE);
+        } catch (JsonProcessingException e) {
+            log.warn("Invalid template data on notification {}: {}", notification.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    private NotificationOutbox toOutbox(NotificationMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification message " + message.getNotificationId(), e);
+        }
+
+        return NotificationOutbox.builder()
+                .notificationId(message.getNotificationId())
+                .channel(message.getChannel())
+                .payload(payload)
+                .build();
+    }
+}
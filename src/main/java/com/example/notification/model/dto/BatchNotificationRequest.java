@@ -0,0 +1,63 @@
+package com.example.notification.model.dto;
+
+import com.example.notification.model.enums.NotificationChannel;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Request DTO for sending one template to many recipients on a single channel.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchNotificationRequest {
+
+    /**
+     * Channel to send every notification through
+     */
+    @NotNull(message = "Channel is required")
+    private NotificationChannel channel;
+
+    /**
+     * Template code to use for rendering content
+     */
+    @NotBlank(message = "Template code is required")
+    private String templateCode;
+
+    /**
+     * Custom subject line (for EMAIL/PUSH)
+     */
+    private String subject;
+
+    /**
+     * Data shared by all recipients; per-recipient data overrides these keys
+     */
+    private Map<String, Object> templateData;
+
+    /**
+     * Recipients of this batch
+     */
+    @Valid
+    @NotEmpty(message = "At least one recipient must be specified")
+    private List<BatchRecipient> recipients;
+
+    /**
+     * Priority level (0-10, higher = more important)
+     */
+    @Builder.Default
+    private Integer priority = 5;
+
+    /**
+     * Whether to skip rate limiting check
+     */
+    @Builder.Default
+    private Boolean skipRateLimit = false;
+}
@@ -0,0 +1,33 @@
+package com.example.notification.model.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.*;
+
+import java.util.Map;
+
+/**
+ * A single recipient of a batch notification.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BatchRecipient {
+
+    /**
+     * User ID receiving the notification
+     */
+    @NotNull(message = "User ID is required")
+    private Long userId;
+
+    /**
+     * Address for the batch channel (email, phone number, push token) - null for IN_APP
+     */
+    private String recipient;
+
+    /**
+     * Recipient-specific template data
+     */
+    private Map<String, Object> templateData;
+}
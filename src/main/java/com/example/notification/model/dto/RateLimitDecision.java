@@ -0,0 +1,12 @@
+package com.example.notification.model.dto;
+
+/**
+ * Outcome of a single rate limiter call.
+ *
+ * @param allowed      whether the request fits in the user's quota
+ * @param remaining    requests still allowed right now after this one
+ * @param retryAfterMs milliseconds until the next request is allowed, 0 when allowed
+ * @param resetAfterMs milliseconds until the full quota is available again
+ */
+public record RateLimitDecision(boolean allowed, int remaining, long retryAfterMs, long resetAfterMs) {
+}
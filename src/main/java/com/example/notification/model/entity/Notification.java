@@ -26,7 +26,8 @@ import java.time.LocalDateTime;
 public class Notification {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_seq")
+    @SequenceGenerator(name = "notification_seq", sequenceName = "notification_seq", allocationSize = 50)
     private Long id;
 
     /**
@@ -68,9 +69,10 @@ public class Notification {
     private String subject;
 
     /**
-     * Rendered content that was sent to the user
+     * Rendered content that was sent to the user.
+     * Not updatable through the entity: deferred renders are written back with a targeted update.
      */
-    @Column(name = "rendered_content", columnDefinition = "TEXT")
+    @Column(name = "rendered_content", columnDefinition = "TEXT", updatable = false)
     private String renderedContent;
 
     /**
@@ -0,0 +1,73 @@
+package com.example.notification.model.entity;
+
+import com.example.notification.model.enums.NotificationChannel;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Pending queue message written in the same transaction as its notification.
+ * Rows are deleted by the outbox relay once the broker confirms the publish,
+ * or parked once the broker has rejected them too many times.
+ */
+@Entity
+@Table(name = "notification_outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "notification_outbox_seq")
+    @SequenceGenerator(name = "notification_outbox_seq", sequenceName = "notification_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    /**
+     * Reference to the notification this message delivers
+     */
+    @Column(name = "notification_id", nullable = false)
+    private Long notificationId;
+
+    /**
+     * Channel used to pick the exchange routing key
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private NotificationChannel channel;
+
+    /**
+     * NotificationMessage serialized as JSON
+     */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /**
+     * Number of publishes the broker rejected: nacked, returned or not confirmed in time
+     */
+    @Builder.Default
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    /**
+     * Last publish failure, if any
+     */
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /**
+     * When the relay gave up on this row; parked rows are kept for inspection and never relayed
+     */
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -3,6 +3,9 @@ package com.example.notification.provider;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.dto.ProviderResponse;
 
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Base interface for notification providers.
  * Each channel implementation wraps an external API or service.
@@ -17,6 +20,36 @@ public interface NotificationProvider {
      */
     ProviderResponse send(NotificationMessage message);
 
+    /**
+     * Send a notification without holding the calling thread for the provider round trip.
+     * The default sends synchronously and returns a completed future.
+     *
+     * @param message the notification message to send
+     * @return a future completed with the provider response; failures are reported as responses, not exceptions
+     */
+    default CompletableFuture<ProviderResponse> sendAsync(NotificationMessage message) {
+        return CompletableFuture.completedFuture(send(message));
+    }
+
+    /**
+     * Whether {@link #sendBatch} sends many messages per API call rather than looping over {@link #send}.
+     *
+     * @return true if batch workers should hand whole batches to this provider
+     */
+    default boolean supportsBatchSend() {
+        return false;
+    }
+
+    /**
+     * Send several notifications, each with its own recipient and content.
+     *
+     * @param messages the notification messages to send
+     * @return one response per message, in the same order as {@code messages}
+     */
+    default List<ProviderResponse> sendBatch(List<NotificationMessage> messages) {
+        return messages.stream().map(this::send).toList();
+    }
+
     /**
      * Check if this provider is enabled and properly configured.
      *
@@ -15,6 +15,7 @@ import java.util.UUID;
 
 /**
  * Email provider implementation using Spring's JavaMailSender.
+ * Messages go out over the {@link SmtpTransportPool} when it is enabled.
  */
 @Component
 @RequiredArgsConstructor
@@ -22,6 +23,7 @@ import java.util.UUID;
 public class JavaMailSenderProvider implements EmailProvider {
 
     private final JavaMailSender mailSender;
+    private final SmtpTransportPool transportPool;
 
     @Override
     public ProviderResponse send(NotificationMessage message) {
@@ -33,7 +35,11 @@ public class JavaMailSenderProvider implements EmailProvider {
             helper.setSubject(message.getSubject() != null ? message.getSubject() : "Notification");
             helper.setText(message.getRenderedContent(), true); // true = HTML content
 
-            mailSender.send(mimeMessage);
+            if (transportPool.isEnabled()) {
+                transportPool.send(mimeMessage);
+            } else {
+                mailSender.send(mimeMessage);
+            }
 
             // Generate a unique message ID for tracking
             String messageId = UUID.randomUUID().toString();
@@ -0,0 +1,304 @@
+package com.example.notification.provider.email;
+
+import com.example.config.notification.NotificationProperties;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.Address;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.Message;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.URLName;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.eclipse.angus.mail.smtp.SMTPTransport;
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailPreparationException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.OutputStream;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps SMTP connections open between emails, so the TCP connect, STARTTLS handshake and AUTH
+ * are paid once per connection rather than once per message.
+ * Connections are taken most-recently-used first, so emails sent close together share one session
+ * and the surplus connections age out through idle eviction.
+ * The connection settings come from the {@link JavaMailSenderImpl} configured under {@code spring.mail}.
+ */
+@Slf4j
+@Component
+public class SmtpTransportPool {
+
+    private final JavaMailSenderImpl mailSender;
+    private final NotificationProperties.SmtpPoolConfig config;
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+    private final Semaphore permits;
+
+    public SmtpTransportPool(JavaMailSender mailSender, NotificationProperties properties) {
+        this.config = properties.getSmtpPool();
+        this.permits = new Semaphore(config.getMaxSize(), true);
+
+        if (config.isEnabled() && mailSender instanceof JavaMailSenderImpl impl) {
+            this.mailSender = impl;
+            log.info("SMTP transport pool enabled: max {} connections, {} messages per connection",
+                    config.getMaxSize(), config.getMaxMessagesPerConnection());
+        } else {
+            this.mailSender = null;
+            log.info("SMTP transport pool is disabled");
+        }
+    }
+
+    public boolean isEnabled() {
+        return mailSender != null;
+    }
+
+    /**
+     * Send a message over a pooled connection.
+     * A reused connection that turns out to be dead before DATA is replaced and the message is sent once more.
+     * Once DATA has started the server may already have accepted the message, so a dropped connection
+     * is reported as a retriable failure instead of resent; a rejection by the server is never retried here.
+     * A connection that still answers NOOP after a failed send goes back to the pool; only a dead one is closed.
+     *
+     * @throws MailException translated the same way as {@link JavaMailSenderImpl#send}
+     */
+    public void send(MimeMessage message) throws MailException {
+        prepare(message);
+
+        PooledTransport transport = borrow();
+        try {
+            try {
+                transport.send(message);
+            } catch (MessagingException e) {
+                if (isConnected(transport)) {
+                    // Only this message was refused; the session is still usable
+                    giveBack(transport);
+                    transport = null;
+                    throw e;
+                }
+                if (e instanceof SendFailedException) {
+                    throw e;
+                }
+                if (transport.messagesSent == 0 || transport.dataStarted()) {
+                    throw new MailSendException("SMTP connection lost, delivery unknown: " + e.getMessage(), e);
+                }
+                log.debug("Pooled SMTP connection dropped before DATA, resending on a new connection: {}", e.getMessage());
+                close(transport);
+                transport = null;
+                transport = connect();
+                transport.send(message);
+            }
+            giveBack(transport);
+            transport = null;
+        } catch (MessagingException e) {
+            // Reached with a connection only when the resend fails; it is kept if it is still live
+            if (transport != null && isConnected(transport)) {
+                giveBack(transport);
+                transport = null;
+            }
+            throw translate(e);
+        } finally {
+            if (transport != null) {
+                close(transport);
+            }
+            permits.release();
+        }
+    }
+
+    /**
+     * Close idle connections older than {@code max-idle-ms} before the server times them out.
+     */
+    @Scheduled(fixedDelayString = "${notification.smtp-pool.evict-interval-ms:30000}")
+    public void evictIdle() {
+        long now = System.currentTimeMillis();
+        Iterator<PooledTransport> it = idle.descendingIterator();
+        while (it.hasNext()) {
+            PooledTransport transport = it.next();
+            if (now - transport.lastUsedAt > config.getMaxIdleMs() && idle.remove(transport)) {
+                close(transport);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            close(transport);
+        }
+    }
+
+    /**
+     * Take a permit, then the most recently used healthy connection, or open a new one.
+     * The caller owns the permit until {@link #send} releases it.
+     */
+    private PooledTransport borrow() throws MailException {
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("Timed out waiting for a free SMTP connection");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted waiting for a free SMTP connection");
+        }
+
+        try {
+            PooledTransport transport;
+            while ((transport = idle.pollFirst()) != null) {
+                if (isReusable(transport)) {
+                    return transport;
+                }
+                close(transport);
+            }
+            return connect();
+        } catch (MessagingException e) {
+            permits.release();
+            throw translate(e);
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private boolean isReusable(PooledTransport transport) {
+        long idleMs = System.currentTimeMillis() - transport.lastUsedAt;
+        if (idleMs > config.getMaxIdleMs()) {
+            return false;
+        }
+        // A recently used connection is trusted; older ones are checked with NOOP
+        return idleMs <= config.getValidateAfterIdleMs() || isConnected(transport);
+    }
+
+    private void giveBack(PooledTransport transport) {
+        if (transport.messagesSent >= config.getMaxMessagesPerConnection()) {
+            close(transport);
+            return;
+        }
+        transport.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(transport);
+    }
+
+    private PooledTransport connect() throws MessagingException {
+        // Protocol resolved as JavaMailSenderImpl does: explicit setting, then session property, then smtp
+        String protocol = mailSender.getProtocol();
+        if (protocol == null) {
+            protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+        }
+        protocol = protocol != null ? protocol : "smtp";
+        Session session = mailSender.getSession();
+        Transport transport = "smtp".equals(protocol) || "smtps".equals(protocol)
+                ? new DataTrackingTransport(session, protocol)
+                : session.getTransport(protocol);
+        transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+        log.debug("Opened SMTP connection to {}:{}", mailSender.getHost(), mailSender.getPort());
+        return new PooledTransport(transport);
+    }
+
+    private static boolean isConnected(PooledTransport transport) {
+        try {
+            return transport.transport.isConnected();
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private static void close(PooledTransport transport) {
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Failed to close SMTP connection: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Same preparation {@link JavaMailSenderImpl} applies before sending.
+     */
+    private static void prepare(MimeMessage message) throws MailException {
+        try {
+            if (message.getSentDate() == null) {
+                message.setSentDate(new Date());
+            }
+            String messageId = message.getMessageID();
+            message.saveChanges();
+            if (messageId != null) {
+                // Preserve an explicitly set message id
+                message.setHeader("Message-ID", messageId);
+            }
+        } catch (MessagingException e) {
+            throw new MailPreparationException(e);
+        }
+    }
+
+    private static MailException translate(MessagingException e) {
+        if (e instanceof AuthenticationFailedException) {
+            return new MailAuthenticationException(e);
+        }
+        // The SMTP reply (code and text) is kept in the message for error classification
+        return new MailSendException("Failed to send mail: " + e.getMessage(), e);
+    }
+
+    private static final class PooledTransport {
+
+        private final Transport transport;
+        private int messagesSent;
+        private long lastUsedAt = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        private void send(MimeMessage message) throws MessagingException {
+            transport.sendMessage(message, message.getAllRecipients());
+            messagesSent++;
+        }
+
+        /**
+         * Whether the last send got as far as DATA; assumed so when the transport cannot tell.
+         */
+        private boolean dataStarted() {
+            return !(transport instanceof DataTrackingTransport tracking) || tracking.dataStarted;
+        }
+    }
+
+    /**
+     * SMTP transport that records whether the current message reached DATA (or BDAT).
+     * Up to RCPT the server has accepted nothing, so a failure there is safe to resend.
+     */
+    private static final class DataTrackingTransport extends SMTPTransport {
+
+        private volatile boolean dataStarted;
+
+        private DataTrackingTransport(Session session, String protocol) {
+            super(session, new URLName(protocol, null, -1, null, null, null), protocol, "smtps".equals(protocol));
+        }
+
+        @Override
+        public synchronized void sendMessage(Message message, Address[] addresses) throws MessagingException {
+            dataStarted = false;
+            super.sendMessage(message, addresses);
+        }
+
+        @Override
+        protected OutputStream data() throws MessagingException {
+            dataStarted = true;
+            return super.data();
+        }
+
+        @Override
+        protected OutputStream bdat() throws MessagingException {
+            dataStarted = true;
+            return super.bdat();
+        }
+    }
+}
@@ -11,8 +11,12 @@ import com.google.firebase.messaging.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -23,6 +27,11 @@ import java.util.Map;
 @Slf4j
 public class FCMPushProvider implements PushProvider {
 
+    /**
+     * Most messages FCM accepts in one sendEach call
+     */
+    private static final int MAX_BATCH_SIZE = 500;
+
     private final NotificationProperties properties;
     private final ObjectMapper objectMapper;
 
@@ -38,51 +47,15 @@ public class FCMPushProvider implements PushProvider {
             );
         }
 
+        Message fcmMessage;
         try {
-            // Parse rendered content if it's JSON
-            String title = message.getSubject() != null ? message.getSubject() : "Notification";
-            String body = message.getRenderedContent();
-            Map<String, String> data = new HashMap<>();
-
-            // Try to parse JSON content for push
-            try {
-                JsonNode jsonNode = objectMapper.readTree(body);
-                if (jsonNode.has("title")) {
-                    title = jsonNode.get("title").asText();
-                }
-                if (jsonNode.has("body")) {
-                    body = jsonNode.get("body").asText();
-                }
-                if (jsonNode.has("data") && jsonNode.get("data").isObject()) {
-                    jsonNode.get("data").fields().forEachRemaining(entry ->
-                            data.put(entry.getKey(), entry.getValue().asText()));
-                }
-            } catch (JsonProcessingException e) {
-                // Not JSON, use content as-is
-                log.debug("Push content is not JSON, using as plain body");
-            }
-
-            // Build FCM message
-            Message.Builder messageBuilder = Message.builder()
-                    .setToken(message.getRecipient())
-                    .setNotification(Notification.builder()
-                            .setTitle(title)
-                            .setBody(body)
-                            .build());
-
-            // Add data payload if present
-            if (!data.isEmpty()) {
-                messageBuilder.putAllData(data);
-            }
-
-            // Add custom metadata
-            if (message.getTemplateData() != null) {
-                messageBuilder.putData("notificationId", String.valueOf(message.getNotificationId()));
-                messageBuilder.putData("templateCode", message.getTemplateCode());
-            }
+            fcmMessage = buildMessage(message);
+        } catch (RuntimeException e) {
+            return invalidMessage(message, e);
+        }
 
-            // Send the message
-            String messageId = FirebaseMessaging.getInstance().send(messageBuilder.build());
+        try {
+            String messageId = FirebaseMessaging.getInstance().send(fcmMessage);
 
             log.info("Push notification sent successfully. MessageId: {}, Token: {}",
                     messageId, maskToken(message.getRecipient()));
@@ -95,24 +68,7 @@ public class FCMPushProvider implements PushProvider {
         } catch (FirebaseMessagingException e) {
             log.error("Failed to send push notification. Error code: {}, Message: {}",
                     e.getMessagingErrorCode(), e.getMessage());
-
-            String errorCode = e.getMessagingErrorCode() != null
-                    ? e.getMessagingErrorCode().name()
-                    : "UNKNOWN";
-
-            if (isPermanentError(e.getMessagingErrorCode())) {
-                return ProviderResponse.permanentFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"errorCode\":\"%s\",\"message\":\"%s\"}", errorCode, e.getMessage())
-                );
-            } else {
-                return ProviderResponse.retriableFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"errorCode\":\"%s\",\"message\":\"%s\"}", errorCode, e.getMessage())
-                );
-            }
+            return toFailure(e);
 
         } catch (Exception e) {
             log.error("Unexpected error sending push notification. Error: {}", e.getMessage());
@@ -125,6 +81,162 @@ public class FCMPushProvider implements PushProvider {
         }
     }
 
+    @Override
+    public boolean supportsBatchSend() {
+        return true;
+    }
+
+    /**
+     * Send up to {@value #MAX_BATCH_SIZE} messages per FCM request with {@code sendEach}.
+     * FCM answers each message separately, so an UNREGISTERED token fails only its own notification.
+     * A message that cannot be built, e.g. for a missing token, fails permanently and is left out of the request.
+     */
+    @Override
+    public List<ProviderResponse> sendBatch(List<NotificationMessage> messages) {
+        if (!isEnabled()) {
+            log.warn("Firebase Push is not enabled. Skipping batch of {} pushes", messages.size());
+            return messages.stream()
+                    .map(message -> ProviderResponse.permanentFailure(
+                            "Push provider is not enabled", "PROVIDER_DISABLED", null))
+                    .toList();
+        }
+
+        List<ProviderResponse> responses = new ArrayList<>(messages.size());
+        for (int from = 0; from < messages.size(); from += MAX_BATCH_SIZE) {
+            responses.addAll(sendChunk(messages.subList(from, Math.min(from + MAX_BATCH_SIZE, messages.size()))));
+        }
+        return responses;
+    }
+
+    private List<ProviderResponse> sendChunk(List<NotificationMessage> chunk) {
+        ProviderResponse[] responses = new ProviderResponse[chunk.size()];
+        List<Message> fcmMessages = new ArrayList<>(chunk.size());
+        // Position in the chunk of each message sent, in request order
+        List<Integer> sentIndexes = new ArrayList<>(chunk.size());
+        for (int i = 0; i < chunk.size(); i++) {
+            try {
+                fcmMessages.add(buildMessage(chunk.get(i)));
+                sentIndexes.add(i);
+            } catch (RuntimeException e) {
+                responses[i] = invalidMessage(chunk.get(i), e);
+            }
+        }
+
+        if (fcmMessages.isEmpty()) {
+            return Arrays.asList(responses);
+        }
+
+        BatchResponse batchResponse;
+        try {
+            batchResponse = FirebaseMessaging.getInstance().sendEach(fcmMessages);
+        } catch (FirebaseMessagingException e) {
+            // The request itself failed (auth, quota, network), not individual tokens
+            log.error("Failed to send push batch of {}. Error code: {}, Message: {}",
+                    fcmMessages.size(), e.getMessagingErrorCode(), e.getMessage());
+            sentIndexes.forEach(i -> responses[i] = toFailure(e));
+            return Arrays.asList(responses);
+        } catch (Exception e) {
+            log.error("Unexpected error sending push batch of {}. Error: {}", fcmMessages.size(), e.getMessage());
+            ProviderResponse failure = ProviderResponse.retriableFailure(
+                    e.getMessage(), "UNKNOWN_ERROR", e.getClass().getSimpleName());
+            sentIndexes.forEach(i -> responses[i] = failure);
+            return Arrays.asList(responses);
+        }
+
+        // Responses come back in the order the messages were sent
+        List<SendResponse> sendResponses = batchResponse.getResponses();
+        for (int sent = 0; sent < sentIndexes.size(); sent++) {
+            int i = sentIndexes.get(sent);
+            SendResponse sendResponse = sendResponses.get(sent);
+            if (sendResponse.isSuccessful()) {
+                responses[i] = ProviderResponse.success(
+                        sendResponse.getMessageId(),
+                        String.format("{\"messageId\":\"%s\"}", sendResponse.getMessageId())
+                );
+            } else {
+                FirebaseMessagingException e = sendResponse.getException();
+                log.debug("Push to token {} failed. Error code: {}",
+                        maskToken(chunk.get(i).getRecipient()), e.getMessagingErrorCode());
+                responses[i] = toFailure(e);
+            }
+        }
+
+        log.info("Push batch sent: {} succeeded, {} failed, {} invalid",
+                batchResponse.getSuccessCount(), batchResponse.getFailureCount(), chunk.size() - fcmMessages.size());
+        return Arrays.asList(responses);
+    }
+
+    private Message buildMessage(NotificationMessage message) {
+        if (!StringUtils.hasText(message.getRecipient())) {
+            throw new IllegalArgumentException("Push token is missing");
+        }
+
+        // Parse rendered content if it's JSON
+        String title = message.getSubject() != null ? message.getSubject() : "Notification";
+        String body = message.getRenderedContent();
+        Map<String, String> data = new HashMap<>();
+
+        // Try to parse JSON content for push
+        try {
+            JsonNode jsonNode = objectMapper.readTree(body != null ? body : "");
+            if (jsonNode.has("title")) {
+                title = jsonNode.get("title").asText();
+            }
+            if (jsonNode.has("body")) {
+                body = jsonNode.get("body").asText();
+            }
+            if (jsonNode.has("data") && jsonNode.get("data").isObject()) {
+                jsonNode.get("data").fields().forEachRemaining(entry ->
+                        data.put(entry.getKey(), entry.getValue().asText()));
+            }
+        } catch (JsonProcessingException e) {
+            // Not JSON, use content as-is
+            log.debug("Push content is not JSON, using as plain body");
+        }
+
+        // Build FCM message
+        Message.Builder messageBuilder = Message.builder()
+                .setToken(message.getRecipient())
+                .setNotification(Notification.builder()
+                        .setTitle(title)
+                        .setBody(body)
+                        .build());
+
+        // Add data payload if present
+        if (!data.isEmpty()) {
+            messageBuilder.putAllData(data);
+        }
+
+        // Add custom metadata
+        if (message.getTemplateData() != null) {
+            messageBuilder.putData("notificationId", String.valueOf(message.getNotificationId()));
+            messageBuilder.putData("templateCode", message.getTemplateCode());
+        }
+
+        return messageBuilder.build();
+    }
+
+    /**
+     * A message FCM would reject whatever the retry, e.g. a missing token or a malformed payload.
+     */
+    private ProviderResponse invalidMessage(NotificationMessage message, RuntimeException e) {
+        log.warn("Invalid push notification {} for token {}: {}",
+                message.getNotificationId(), maskToken(message.getRecipient()), e.getMessage());
+        return ProviderResponse.permanentFailure(e.getMessage(), "INVALID_MESSAGE", null);
+    }
+
+    private ProviderResponse toFailure(FirebaseMessagingException e) {
+        String errorCode = e.getMessagingErrorCode() != null
+                ? e.getMessagingErrorCode().name()
+                : "UNKNOWN";
+        String rawResponse = String.format("{\"errorCode\":\"%s\",\"message\":\"%s\"}", errorCode, e.getMessage());
+
+        if (isPermanentError(e.getMessagingErrorCode())) {
+            return ProviderResponse.permanentFailure(e.getMessage(), errorCode, rawResponse);
+        }
+        return ProviderResponse.retriableFailure(e.getMessage(), errorCode, rawResponse);
+    }
+
     @Override
     public boolean isEnabled() {
         return properties.getFirebase().isEnabled()
@@ -3,15 +3,17 @@ package com.example.notification.provider.sms;
 import com.example.config.notification.NotificationProperties;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.dto.ProviderResponse;
-import com.twilio.exception.ApiException;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.example.notification.provider.twilio.TwilioApiClient;
+import com.example.notification.provider.twilio.TwilioMessageResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * SMS provider implementation using Twilio API.
+ * Sends go through {@link TwilioApiClient}, so {@link #sendAsync} does not block on the API call.
  */
 @Component
 @RequiredArgsConstructor
@@ -19,67 +21,52 @@ import org.springframework.stereotype.Component;
 public class TwilioSmsProvider implements SmsProvider {
 
     private final NotificationProperties properties;
+    private final TwilioApiClient twilioApiClient;
 
     @Override
     public ProviderResponse send(NotificationMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<ProviderResponse> sendAsync(NotificationMessage message) {
         if (!isEnabled()) {
             log.warn("Twilio SMS is not enabled. Skipping SMS to: {}", message.getRecipient());
-            return ProviderResponse.permanentFailure(
+            return CompletableFuture.completedFuture(ProviderResponse.permanentFailure(
                     "SMS provider is not enabled",
                     "PROVIDER_DISABLED",
                     null
-            );
+            ));
         }
 
-        try {
-            Message twilioMessage = Message.creator(
-                    new PhoneNumber(message.getRecipient()),
-                    new PhoneNumber(properties.getTwilio().getFromNumber()),
-                    message.getRenderedContent()
-            ).create();
-
-            String messageId = twilioMessage.getSid();
-            String status = twilioMessage.getStatus().toString();
+        return twilioApiClient.createMessage(
+                message.getRecipient(),
+                properties.getTwilio().getFromNumber(),
+                message.getRenderedContent()
+        ).thenApply(result -> toResponse(message, result));
+    }
 
+    private ProviderResponse toResponse(NotificationMessage message, TwilioMessageResult result) {
+        if (result.isSuccess()) {
             log.info("SMS sent successfully to: {}. SID: {}, Status: {}",
-                    message.getRecipient(), messageId, status);
+                    message.getRecipient(), result.sid(), result.status());
 
             return ProviderResponse.success(
-                    messageId,
-                    String.format("{\"sid\":\"%s\",\"status\":\"%s\"}", messageId, status)
+                    result.sid(),
+                    String.format("{\"sid\":\"%s\",\"status\":\"%s\"}", result.sid(), result.status())
             );
+        }
 
-        } catch (ApiException e) {
-            log.error("Failed to send SMS to: {}. Error code: {}, Message: {}",
-                    message.getRecipient(), e.getCode(), e.getMessage());
-
-            String errorCode = String.valueOf(e.getCode());
-
-            // Classify error based on Twilio error code
-            if (isPermanentError(e.getCode())) {
-                return ProviderResponse.permanentFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"code\":%d,\"message\":\"%s\"}", e.getCode(), e.getMessage())
-                );
-            } else {
-                return ProviderResponse.retriableFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"code\":%d,\"message\":\"%s\"}", e.getCode(), e.getMessage())
-                );
-            }
+        log.error("Failed to send SMS to: {}. HTTP status: {}, Error code: {}, Message: {}",
+                message.getRecipient(), result.httpStatus(), result.errorCode(), result.errorMessage());
 
-        } catch (Exception e) {
-            log.error("Unexpected error sending SMS to: {}. Error: {}",
-                    message.getRecipient(), e.getMessage());
+        String errorCode = result.errorCode() != null ? String.valueOf(result.errorCode()) : "UNKNOWN_ERROR";
 
-            return ProviderResponse.retriableFailure(
-                    e.getMessage(),
-                    "UNKNOWN_ERROR",
-                    e.getClass().getSimpleName()
-            );
+        // Classify error based on Twilio error code
+        if (!result.isTransient() && result.errorCode() != null && isPermanentError(result.errorCode())) {
+            return ProviderResponse.permanentFailure(result.errorMessage(), errorCode, result.rawResponse());
         }
+        return ProviderResponse.retriableFailure(result.errorMessage(), errorCode, result.rawResponse());
     }
 
     @Override
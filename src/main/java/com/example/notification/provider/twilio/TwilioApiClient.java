@@ -0,0 +1,143 @@
+package com.example.notification.provider.twilio;
+
+import com.example.config.notification.NotificationProperties;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Non-blocking client for the Twilio Create Message endpoint, built on the JDK {@link HttpClient}.
+ * The listener thread only submits the request; the response completes the returned future,
+ * so a consumer is not held for the full Twilio round trip.
+ * Requests in flight are capped per account, and a send waits for a free slot when the cap is reached,
+ * which pushes back on the consumer instead of piling up requests.
+ */
+@Slf4j
+@Component
+public class TwilioApiClient {
+
+    private static final String MESSAGES_PATH = "/2010-04-01/Accounts/%s/Messages.json";
+
+    private final NotificationProperties.TwilioConfig config;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final Map<String, Semaphore> inFlight = new ConcurrentHashMap<>();
+
+    public TwilioApiClient(NotificationProperties properties, ObjectMapper objectMapper) {
+        this.config = properties.getTwilio();
+        this.objectMapper = objectMapper;
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(config.getConnectTimeoutMs()))
+                .build();
+
+        if (!config.isEnabled()) {
+            log.info("Twilio is disabled. SMS/WhatsApp notifications will not be sent.");
+        } else if (!StringUtils.hasText(config.getAccountSid()) || !StringUtils.hasText(config.getAuthToken())) {
+            log.warn("Twilio is enabled but credentials are missing. SMS/WhatsApp notifications will fail.");
+        }
+    }
+
+    /**
+     * Send a message through the configured account.
+     *
+     * @param to   destination number, with the {@code whatsapp:} prefix for WhatsApp
+     * @param from sender number, with the {@code whatsapp:} prefix for WhatsApp
+     * @param body message text
+     * @return a future completed with the result once Twilio responds; it never completes exceptionally
+     */
+    public CompletableFuture<TwilioMessageResult> createMessage(String to, String from, String body) {
+        String accountSid = config.getAccountSid();
+        Semaphore permits = inFlight.computeIfAbsent(accountSid, sid -> new Semaphore(config.getMaxInFlight()));
+
+        try {
+            if (!permits.tryAcquire(config.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return CompletableFuture.completedFuture(
+                        failure("Too many Twilio requests in flight for account " + accountSid));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.completedFuture(failure("Interrupted waiting for a Twilio request slot"));
+        }
+
+        CompletableFuture<HttpResponse<String>> response;
+        try {
+            response = httpClient.sendAsync(buildRequest(accountSid, to, from, body),
+                    HttpResponse.BodyHandlers.ofString());
+        } catch (RuntimeException e) {
+            permits.release();
+            return CompletableFuture.completedFuture(failure(e.getMessage()));
+        }
+
+        return response
+                .handle((httpResponse, error) -> {
+                    permits.release();
+                    if (error != null) {
+                        log.debug("Twilio request failed: {}", error.getMessage());
+                        return failure(error.getMessage());
+                    }
+                    return parse(httpResponse);
+                });
+    }
+
+    private HttpRequest buildRequest(String accountSid, String to, String from, String body) {
+        String form = "To=" + encode(to) + "&From=" + encode(from) + "&Body=" + encode(body);
+        String credentials = Base64.getEncoder().encodeToString(
+                (accountSid + ":" + config.getAuthToken()).getBytes(StandardCharsets.UTF_8));
+
+        return HttpRequest.newBuilder()
+                .uri(URI.create(config.getApiBaseUrl() + MESSAGES_PATH.formatted(accountSid)))
+                .timeout(Duration.ofMillis(config.getRequestTimeoutMs()))
+                .header("Authorization", "Basic " + credentials)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .header("Accept", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(form))
+                .build();
+    }
+
+    private TwilioMessageResult parse(HttpResponse<String> response) {
+        String raw = response.body();
+        JsonNode json;
+        try {
+            json = objectMapper.readTree(raw == null || raw.isBlank() ? "{}" : raw);
+        } catch (Exception e) {
+            json = objectMapper.createObjectNode();
+        }
+
+        if (response.statusCode() >= 200 && response.statusCode() < 300) {
+            return new TwilioMessageResult(response.statusCode(), text(json, "sid"), text(json, "status"),
+                    null, null, raw);
+        }
+
+        Integer errorCode = json.hasNonNull("code") ? json.get("code").asInt() : null;
+        String errorMessage = json.hasNonNull("message") ? json.get("message").asText() : "HTTP " + response.statusCode();
+        return new TwilioMessageResult(response.statusCode(), null, null, errorCode, errorMessage, raw);
+    }
+
+    private static TwilioMessageResult failure(String errorMessage) {
+        return new TwilioMessageResult(0, null, null, null, errorMessage, null);
+    }
+
+    private static String text(JsonNode json, String field) {
+        return json.hasNonNull(field) ? json.get(field).asText() : null;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.notification.provider.twilio;
+
+/**
+ * Outcome of one Create Message call to the Twilio REST API.
+ *
+ * @param httpStatus   HTTP status of the response, or 0 if no response was received
+ * @param sid          message SID when the message was accepted
+ * @param status       Twilio message status, e.g. {@code queued}
+ * @param errorCode    Twilio error code when the request was rejected
+ * @param errorMessage error description when the request failed
+ * @param rawResponse  response body as returned by Twilio
+ */
+public record TwilioMessageResult(
+        int httpStatus,
+        String sid,
+        String status,
+        Integer errorCode,
+        String errorMessage,
+        String rawResponse) {
+
+    public boolean isSuccess() {
+        return httpStatus >= 200 && httpStatus < 300 && sid != null;
+    }
+
+    /**
+     * Rate limited or failed on Twilio's side; worth retrying whatever the error code.
+     */
+    public boolean isTransient() {
+        return httpStatus == 0 || httpStatus == 429 || httpStatus >= 500;
+    }
+}
@@ -3,15 +3,17 @@ package com.example.notification.provider.whatsapp;
 import com.example.config.notification.NotificationProperties;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.dto.ProviderResponse;
-import com.twilio.exception.ApiException;
-import com.twilio.rest.api.v2010.account.Message;
-import com.twilio.type.PhoneNumber;
+import com.example.notification.provider.twilio.TwilioApiClient;
+import com.example.notification.provider.twilio.TwilioMessageResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * WhatsApp provider implementation using Twilio WhatsApp API.
+ * Messages are posted through the shared {@link TwilioApiClient} and its per-account request limit.
  */
 @Component
 @RequiredArgsConstructor
@@ -21,75 +23,57 @@ public class TwilioWhatsAppProvider implements WhatsAppProvider {
     private static final String WHATSAPP_PREFIX = "whatsapp:";
 
     private final NotificationProperties properties;
+    private final TwilioApiClient twilioApiClient;
 
     @Override
     public ProviderResponse send(NotificationMessage message) {
+        return sendAsync(message).join();
+    }
+
+    @Override
+    public CompletableFuture<ProviderResponse> sendAsync(NotificationMessage message) {
         if (!isEnabled()) {
             log.warn("Twilio WhatsApp is not enabled. Skipping message to: {}", message.getRecipient());
-            return ProviderResponse.permanentFailure(
+            return CompletableFuture.completedFuture(ProviderResponse.permanentFailure(
                     "WhatsApp provider is not enabled",
                     "PROVIDER_DISABLED",
                     null
-            );
+            ));
         }
 
-        try {
-            // Format phone numbers for WhatsApp
-            String toNumber = formatWhatsAppNumber(message.getRecipient());
-            String fromNumber = properties.getTwilio().getWhatsappNumber();
-
-            // Ensure from number has whatsapp: prefix
-            if (!fromNumber.startsWith(WHATSAPP_PREFIX)) {
-                fromNumber = WHATSAPP_PREFIX + fromNumber;
-            }
+        // Format phone numbers for WhatsApp
+        String toNumber = formatWhatsAppNumber(message.getRecipient());
+        String fromNumber = properties.getTwilio().getWhatsappNumber();
 
-            Message twilioMessage = Message.creator(
-                    new PhoneNumber(toNumber),
-                    new PhoneNumber(fromNumber),
-                    message.getRenderedContent()
-            ).create();
+        // Ensure from number has whatsapp: prefix
+        if (!fromNumber.startsWith(WHATSAPP_PREFIX)) {
+            fromNumber = WHATSAPP_PREFIX + fromNumber;
+        }
 
-            String messageId = twilioMessage.getSid();
-            String status = twilioMessage.getStatus().toString();
+        return twilioApiClient.createMessage(toNumber, fromNumber, message.getRenderedContent())
+                .thenApply(result -> toResponse(message, result));
+    }
 
+    private ProviderResponse toResponse(NotificationMessage message, TwilioMessageResult result) {
+        if (result.isSuccess()) {
             log.info("WhatsApp message sent successfully to: {}. SID: {}, Status: {}",
-                    message.getRecipient(), messageId, status);
+                    message.getRecipient(), result.sid(), result.status());
 
             return ProviderResponse.success(
-                    messageId,
-                    String.format("{\"sid\":\"%s\",\"status\":\"%s\"}", messageId, status)
+                    result.sid(),
+                    String.format("{\"sid\":\"%s\",\"status\":\"%s\"}", result.sid(), result.status())
             );
+        }
 
-        } catch (ApiException e) {
-            log.error("Failed to send WhatsApp message to: {}. Error code: {}, Message: {}",
-                    message.getRecipient(), e.getCode(), e.getMessage());
-
-            String errorCode = String.valueOf(e.getCode());
-
-            if (isPermanentError(e.getCode())) {
-                return ProviderResponse.permanentFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"code\":%d,\"message\":\"%s\"}", e.getCode(), e.getMessage())
-                );
-            } else {
-                return ProviderResponse.retriableFailure(
-                        e.getMessage(),
-                        errorCode,
-                        String.format("{\"code\":%d,\"message\":\"%s\"}", e.getCode(), e.getMessage())
-                );
-            }
-
-        } catch (Exception e) {
-            log.error("Unexpected error sending WhatsApp message to: {}. Error: {}",
-                    message.getRecipient(), e.getMessage());
-
-            return ProviderResponse.retriableFailure(
-                    e.getMessage(),
-                    "UNKNOWN_ERROR",
-                    e.getClass().getSimpleName()
-            );
+        log.error("Failed to send WhatsApp message to: {}. HTTP status: {}, Error code: {}, Message: {}",
+                message.getRecipient(), result.httpStatus(), result.errorCode(), result.errorMessage());
+
+        String errorCode = result.errorCode() != null ? String.valueOf(result.errorCode()) : "UNKNOWN_ERROR";
+
+        if (!result.isTransient() && result.errorCode() != null && isPermanentError(result.errorCode())) {
+            return ProviderResponse.permanentFailure(result.errorMessage(), errorCode, result.rawResponse());
         }
+        return ProviderResponse.retriableFailure(result.errorMessage(), errorCode, result.rawResponse());
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 
 /**
@@ -19,7 +20,7 @@ public abstract class AbstractChannelPublisher implements ChannelPublisher {
     protected final NotificationProperties properties;
 
     @Override
-    public void publish(NotificationMessage message) {
+    public void publish(NotificationMessage message, CorrelationData correlationData) {
         String exchange = properties.getQueue().getExchange();
         String routingKey = getChannel().getRoutingKey();
 
@@ -32,7 +33,7 @@ public abstract class AbstractChannelPublisher implements ChannelPublisher {
             m.getMessageProperties().setHeader("x-user-id", message.getUserId());
             m.getMessageProperties().setPriority(message.getPriority());
             return m;
-        });
+        }, correlationData);
 
         log.info("Published {} notification {} for user {} to queue",
                 getChannel(), message.getNotificationId(), message.getUserId());
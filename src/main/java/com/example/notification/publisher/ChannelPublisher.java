@@ -2,6 +2,7 @@ package com.example.notification.publisher;
 
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 
 /**
  * Strategy interface for publishing notifications to channel-specific queues.
@@ -13,7 +14,17 @@ public interface ChannelPublisher {
      *
      * @param message the notification message to publish
      */
-    void publish(NotificationMessage message);
+    default void publish(NotificationMessage message) {
+        publish(message, null);
+    }
+
+    /**
+     * Publish a notification message and report the broker confirm through the correlation data.
+     *
+     * @param message the notification message to publish
+     * @param correlationData publisher confirm correlation, or null when no confirm is awaited
+     */
+    void publish(NotificationMessage message, CorrelationData correlationData);
 
     /**
      * Get the channel this publisher handles.
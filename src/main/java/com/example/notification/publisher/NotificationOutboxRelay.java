@@ -0,0 +1,222 @@
+package com.example.notification.publisher;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.entity.NotificationOutbox;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.notification.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Drains the notification outbox to RabbitMQ.
+ * Each batch is locked with FOR UPDATE SKIP LOCKED, so any number of nodes can relay concurrently
+ * without publishing the same row twice. Rows are deleted only after a positive publisher confirm
+ * for a message the broker routed; a mandatory publish that comes back returned counts as rejected.
+ * A row the broker keeps rejecting is parked after {@code notification.outbox.max-attempts} and left for inspection;
+ * a publish that fails because the broker is unreachable is retried without counting against the row.
+ */
+@Slf4j
+@Component
+public class NotificationOutboxRelay {
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final Map<NotificationChannel, ChannelPublisher> publishers;
+    private final NotificationProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor taskExecutor;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean pending = new AtomicBoolean();
+
+    public NotificationOutboxRelay(
+        NotificationOutboxRepository outboxRepository,
+        List<ChannelPublisher> channelPublishers,
+        NotificationProperties properties,
+        ObjectMapper objectMapper,
+        PlatformTransactionManager transactionManager,
+        @Qualifier("notificationTaskExecutor") Executor taskExecutor) {
+        this.outboxRepository = outboxRepository;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.taskExecutor = taskExecutor;
+
+        this.publishers = new EnumMap<>(NotificationChannel.class);
+        for (ChannelPublisher publisher : channelPublishers) {
+            publishers.put(publisher.getChannel(), publisher);
+        }
+    }
+
+    /**
+     * Drain right after the current transaction commits instead of waiting for the next poll.
+     */
+    public void triggerAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            trigger();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                trigger();
+            }
+        });
+    }
+
+    public void trigger() {
+        pending.set(true);
+        try {
+            taskExecutor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            // The scheduled poll picks the rows up
+            log.debug("Outbox relay trigger rejected: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notification.outbox.poll-interval-ms:1000}")
+    public void poll() {
+        pending.set(true);
+        drain();
+    }
+
+    private void drain() {
+        // Triggers that arrive while a drain is running collapse into one more pass
+        do {
+            if (!draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                while (pending.getAndSet(false)) {
+                    int batchSize = properties.getOutbox().getBatchSize();
+                    while (relayBatch(batchSize) == batchSize) {
+                        // Keep going while full batches come back
+                    }
+                }
+            } catch (Exception e) {
+                log.error("Outbox relay failed: {}", e.getMessage(), e);
+            } finally {
+                draining.set(false);
+            }
+        } while (pending.get());
+    }
+
+    private int relayBatch(int batchSize) {
+        Integer relayed = transactionTemplate.execute(status -> {
+            List<NotificationOutbox> batch = outboxRepository.lockNextBatch(batchSize);
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            Map<Long, CorrelationData> confirms = new LinkedHashMap<>();
+            List<Long> unsent = new ArrayList<>();
+            List<Long> unpublishable = new ArrayList<>();
+
+            for (NotificationOutbox row : batch) {
+                ChannelPublisher publisher = publishers.get(row.getChannel());
+                NotificationMessage message = deserialize(row);
+                if (publisher == null || message == null) {
+                    unpublishable.add(row.getId());
+                    continue;
+                }
+
+                CorrelationData correlationData = new CorrelationData(String.valueOf(row.getId()));
+                try {
+                    publisher.publish(message, correlationData);
+                    confirms.put(row.getId(), correlationData);
+                } catch (Exception e) {
+                    log.warn("Outbox publish failed for row {}: {}", row.getId(), e.getMessage());
+                    unsent.add(row.getId());
+                }
+            }
+
+            List<Long> confirmed = new ArrayList<>();
+            List<Long> rejected = new ArrayList<>();
+            awaitConfirms(confirms, confirmed, rejected);
+
+            if (!confirmed.isEmpty()) {
+                outboxRepository.deleteAllByIdInBatch(confirmed);
+            }
+            if (!unsent.isEmpty()) {
+                outboxRepository.markPublishError(unsent, "Publish did not reach the broker");
+            }
+            if (!rejected.isEmpty()) {
+                outboxRepository.markAttemptFailed(rejected, "Publish not confirmed by broker");
+                List<Long> parked = outboxRepository.parkExhausted(
+                        rejected, properties.getOutbox().getMaxAttempts(), LocalDateTime.now());
+                if (!parked.isEmpty()) {
+                    log.error("Parked {} outbox rows after {} rejected publishes: {}",
+                            parked.size(), properties.getOutbox().getMaxAttempts(), parked);
+                }
+            }
+            if (!unpublishable.isEmpty()) {
+                log.error("Dropping {} outbox rows that cannot be published: {}", unpublishable.size(), unpublishable);
+                outboxRepository.deleteAllByIdInBatch(unpublishable);
+            }
+
+            log.debug("Outbox batch relayed: {} confirmed, {} rejected, {} not sent",
+                    confirmed.size(), rejected.size(), unsent.size());
+            // Back off until the next poll when the broker is not confirming
+            return rejected.isEmpty() && unsent.isEmpty() ? batch.size() : 0;
+        });
+        return relayed == null ? 0 : relayed;
+    }
+
+    private void awaitConfirms(Map<Long, CorrelationData> confirms, List<Long> confirmed, List<Long> rejected) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getOutbox().getConfirmTimeoutMs());
+
+        for (Map.Entry<Long, CorrelationData> entry : confirms.entrySet()) {
+            try {
+                long remaining = Math.max(0, deadline - System.nanoTime());
+                CorrelationData.Confirm confirm = entry.getValue().getFuture().get(remaining, TimeUnit.NANOSECONDS);
+                ReturnedMessage returned = entry.getValue().getReturned();
+                if (!confirm.isAck()) {
+                    log.warn("Outbox row {} not acked by broker: {}", entry.getKey(), confirm.getReason());
+                    rejected.add(entry.getKey());
+                } else if (returned != null) {
+                    // Acked but unroutable: the broker dropped it, so the row stays until a queue is bound
+                    log.warn("Outbox row {} returned by broker: {} {}",
+                            entry.getKey(), returned.getReplyCode(), returned.getReplyText());
+                    rejected.add(entry.getKey());
+                } else {
+                    confirmed.add(entry.getKey());
+                }
+            } catch (TimeoutException e) {
+                rejected.add(entry.getKey());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                rejected.add(entry.getKey());
+            } catch (Exception e) {
+                rejected.add(entry.getKey());
+            }
+        }
+    }
+
+    private NotificationMessage deserialize(NotificationOutbox row) {
+        try {
+            return objectMapper.readValue(row.getPayload(), NotificationMessage.class);
+        } catch (JsonProcessingException e) {
+            log.error("Invalid outbox payload for row {}: {}", row.getId(), e.getMessage());
+            return null;
+        }
+    }
+}
@@ -5,8 +5,14 @@ import com.example.notification.model.enums.NotificationChannel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+
 @Repository
 public interface DeadLetterQueueRepository extends JpaRepository<DeadLetterQueue, Long> {
 
@@ -34,4 +40,21 @@ public interface DeadLetterQueueRepository extends JpaRepository<DeadLetterQueue
      * Count total DLQ entries (for monitoring)
      */
     long count();
+
+    /**
+     * Create the DLQ entries for failed notifications in one INSERT ... SELECT,
+     * copying each notification's details instead of loading the rows first
+     */
+    @Modifying
+    @Query(value = "INSERT INTO notification_dead_letter_queue (notification_id, user_id, channel, template_code, " +
+            "recipient, template_data, retry_count, failure_reason, last_error_code, last_provider_response, " +
+            "original_created_at, created_at) " +
+            "SELECT id, user_id, channel, template_code, recipient, template_data, retry_count, :failureReason, " +
+            ":errorCode, provider_response, created_at, :now FROM notifications WHERE id IN (:ids)",
+            nativeQuery = true)
+    int insertFromNotifications(
+            @Param("ids") Collection<Long> ids,
+            @Param("failureReason") String failureReason,
+            @Param("errorCode") String errorCode,
+            @Param("now") LocalDateTime now);
 }
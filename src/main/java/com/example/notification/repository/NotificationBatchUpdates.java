@@ -0,0 +1,19 @@
+package com.example.notification.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Batched writes that carry a different value per row, which a single {@code UPDATE ... WHERE id IN} cannot.
+ */
+public interface NotificationBatchUpdates {
+
+    /**
+     * Mark notifications DELIVERED with each one's provider message id and response,
+     * as one JDBC batch and without loading the rows.
+     */
+    void markDelivered(Collection<Delivery> deliveries, LocalDateTime now);
+
+    record Delivery(Long notificationId, String externalId, String providerResponse) {
+    }
+}
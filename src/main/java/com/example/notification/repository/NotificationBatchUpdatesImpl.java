@@ -0,0 +1,37 @@
+package com.example.notification.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * JDBC side of {@link NotificationRepository}; joins the caller's transaction like the JPA methods do.
+ */
+@RequiredArgsConstructor
+class NotificationBatchUpdatesImpl implements NotificationBatchUpdates {
+
+    private static final String MARK_DELIVERED_SQL =
+            "UPDATE notifications SET status = 'DELIVERED', external_id = ?, provider_response = ?, " +
+                    "sent_at = ?, delivered_at = ?, updated_at = ? WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void markDelivered(Collection<Delivery> deliveries, LocalDateTime now) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Object[]> rows = deliveries.stream()
+                .map(delivery -> new Object[]{
+                        delivery.externalId(), delivery.providerResponse(),
+                        timestamp, timestamp, timestamp, delivery.notificationId()})
+                .toList();
+        jdbcTemplate.batchUpdate(MARK_DELIVERED_SQL, rows);
+    }
+}
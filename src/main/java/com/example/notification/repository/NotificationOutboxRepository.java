@@ -0,0 +1,52 @@
+package com.example.notification.repository;
+
+import com.example.notification.model.entity.NotificationOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * Lock the oldest pending rows that are not parked. Rows locked by another relay node are skipped, not waited on.
+     * Served by the partial index idx_notification_outbox_unparked.
+     */
+    @Query(value = "SELECT * FROM notification_outbox WHERE parked_at IS NULL ORDER BY id LIMIT :limit " +
+            "FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<NotificationOutbox> lockNextBatch(@Param("limit") int limit);
+
+    /**
+     * Record a publish the broker rejected so the rows are retried on the next pass
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.attempts = o.attempts + 1, o.lastError = :error WHERE o.id IN :ids")
+    int markAttemptFailed(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Record a publish that never reached the broker (e.g. connection down); it does not count as an attempt
+     */
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.lastError = :error WHERE o.id IN :ids")
+    int markPublishError(@Param("ids") Collection<Long> ids, @Param("error") String error);
+
+    /**
+     * Park the rows among {@code ids} that have used up their attempts and return their ids
+     */
+    @Transactional
+    @Query(value = "UPDATE notification_outbox SET parked_at = :now " +
+            "WHERE id IN (:ids) AND attempts >= :maxAttempts AND parked_at IS NULL RETURNING id",
+            nativeQuery = true)
+    List<Long> parkExhausted(
+            @Param("ids") Collection<Long> ids,
+            @Param("maxAttempts") int maxAttempts,
+            @Param("now") LocalDateTime now);
+}
@@ -10,12 +10,14 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<Notification, Long> {
+public interface NotificationRepository extends JpaRepository<Notification, Long>, NotificationBatchUpdates {
 
     /**
      * Find all notifications for a user with pagination
@@ -51,12 +53,27 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
     Page<Notification> findByStatusOrderByCreatedAtDesc(NotificationStatus status, Pageable pageable);
 
     /**
-     * Find notifications ready for retry (status = RETRY and next_retry_at <= now)
+     * Lock one page of notifications ready for retry (status = RETRY and next_retry_at <= dueBefore).
+     * Served by the partial index idx_notification_retry_due; rows locked by another node are skipped.
      */
-    @Query("SELECT n FROM Notification n WHERE n.status = :status AND n.nextRetryAt <= :now")
+    @Query(value = "SELECT * FROM notifications WHERE status = 'RETRY' AND next_retry_at <= :dueBefore " +
+            "ORDER BY next_retry_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
     List<Notification> findNotificationsReadyForRetry(
-            @Param("status") NotificationStatus status,
-            @Param("now") LocalDateTime now);
+            @Param("dueBefore") LocalDateTime dueBefore,
+            @Param("limit") int limit);
+
+    /**
+     * Lock one page of notifications left in PROCESSING since before {@code staleBefore}, whose worker died
+     * or whose message was acknowledged without being sent.
+     * Served by the partial index idx_notification_processing_stale; rows locked by another node are skipped.
+     */
+    @Query(value = "SELECT * FROM notifications WHERE status = 'PROCESSING' AND updated_at < :staleBefore " +
+            "ORDER BY updated_at LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Notification> findStaleProcessing(
+            @Param("staleBefore") LocalDateTime staleBefore,
+            @Param("limit") int limit);
 
     /**
      * Mark all in-app notifications as read for a user
@@ -69,6 +86,70 @@ public interface NotificationRepository extends JpaRepository<Notification, Long
             @Param("channel") NotificationChannel channel,
             @Param("now") LocalDateTime now);
 
+    /**
+     * Claim notifications for sending: moves PENDING/RETRY rows, and PROCESSING rows whose worker
+     * went silent before {@code staleBefore}, to PROCESSING in one statement and returns the ids it claimed.
+     * Row locks are held only for this statement, never while the provider is called.
+     */
+    @Transactional
+    @Query(value = "UPDATE notifications SET status = 'PROCESSING', updated_at = :now " +
+            "WHERE id IN (:ids) AND (status IN ('PENDING', 'RETRY') " +
+            "OR (status = 'PROCESSING' AND updated_at < :staleBefore)) RETURNING id",
+            nativeQuery = true)
+    List<Long> claimForProcessing(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") LocalDateTime now,
+            @Param("staleBefore") LocalDateTime staleBefore);
+
+    /**
+     * Mark stored notifications DELIVERED in one statement and return the ids it changed.
+     * Used for IN_APP, where storing the row is the delivery; only PENDING or RETRY rows change,
+     * so a duplicate message cannot touch a row that is finished or being processed.
+     */
+    @Transactional
+    @Query(value = "UPDATE notifications SET status = 'DELIVERED', sent_at = :now, delivered_at = :now, " +
+            "updated_at = :now WHERE id IN (:ids) AND status IN ('PENDING', 'RETRY') RETURNING id",
+            nativeQuery = true)
+    List<Long> markDeliveredIfPending(
+            @Param("ids") Collection<Long> ids,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Schedule a retry for every notification in {@code ids} in one statement.
+     * Callers group rows by retry time and error, so a failed batch costs one statement per group.
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.retryCount = n.retryCount + 1, " +
+            "n.nextRetryAt = :nextRetryAt, n.errorMessage = :errorMessage, n.errorCode = :errorCode, " +
+            "n.updatedAt = :now WHERE n.id IN :ids")
+    int markRetryScheduled(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") NotificationStatus status,
+            @Param("nextRetryAt") LocalDateTime nextRetryAt,
+            @Param("errorMessage") String errorMessage,
+            @Param("errorCode") String errorCode,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Mark every notification in {@code ids} as finally failed in one statement
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.status = :status, n.failedAt = :now, n.errorMessage = :errorMessage, " +
+            "n.errorCode = :errorCode, n.updatedAt = :now WHERE n.id IN :ids")
+    int markFailed(
+            @Param("ids") Collection<Long> ids,
+            @Param("status") NotificationStatus status,
+            @Param("errorMessage") String errorMessage,
+            @Param("errorCode") String errorCode,
+            @Param("now") LocalDateTime now);
+
+    /**
+     * Store content rendered by a worker; never overwrites content that is already set
+     */
+    @Modifying
+    @Query("UPDATE Notification n SET n.renderedContent = :content WHERE n.id = :id AND n.renderedContent IS NULL")
+    int updateRenderedContent(@Param("id") Long id, @Param("content") String content);
+
     /**
      * Count notifications sent to a user within a time window (for rate limiting backup check)
      */
@@ -1,5 +1,6 @@
 package com.example.notification.service;
 
+import com.example.notification.model.dto.BatchNotificationRequest;
 import com.example.notification.model.dto.NotificationRequest;
 import com.example.notification.model.dto.NotificationResponse;
 import com.example.notification.model.enums.NotificationChannel;
@@ -24,6 +25,16 @@ public interface NotificationService {
      */
     List<Long> send(NotificationRequest request);
 
+    /**
+     * Send one template to many recipients on a single channel.
+     * Recipients are persisted in chunks, each chunk in its own transaction with JDBC batch inserts,
+     * so call this outside of a surrounding transaction.
+     *
+     * @param request the batch request
+     * @return number of notifications queued
+     */
+    int sendBatch(BatchNotificationRequest request);
+
     /**
      * Send an email notification (convenience method).
      *
@@ -1,5 +1,6 @@
 package com.example.notification.service;
 
+import com.example.notification.model.dto.RateLimitDecision;
 import com.example.notification.model.enums.NotificationChannel;
 
 /**
@@ -8,21 +9,33 @@ import com.example.notification.model.enums.NotificationChannel;
 public interface RateLimiterService {
 
     /**
-     * Check if a notification can be sent (within rate limits).
+     * Check the rate limit and, if allowed, consume one request in the same step.
      *
      * @param userId  the user ID
      * @param channel the notification channel
-     * @return true if the notification is allowed
+     * @return the decision, including remaining quota and reset time
+     */
+    RateLimitDecision tryConsume(Long userId, NotificationChannel channel);
+
+    /**
+     * Report the current rate limit state without consuming quota.
+     *
+     * @param userId  the user ID
+     * @param channel the notification channel
+     * @return the decision the next {@link #tryConsume} call would get
      */
-    boolean isAllowed(Long userId, NotificationChannel channel);
+    RateLimitDecision peek(Long userId, NotificationChannel channel);
 
     /**
-     * Record a notification attempt (increment counter).
+     * Check if a notification can be sent (within rate limits) without consuming quota.
      *
      * @param userId  the user ID
      * @param channel the notification channel
+     * @return true if the notification is allowed
      */
-    void recordAttempt(Long userId, NotificationChannel channel);
+    default boolean isAllowed(Long userId, NotificationChannel channel) {
+        return peek(userId, channel).allowed();
+    }
 
     /**
      * Get remaining quota for a user on a specific channel.
@@ -31,14 +44,18 @@ public interface RateLimiterService {
      * @param channel the notification channel
      * @return the number of remaining allowed notifications
      */
-    int getRemainingQuota(Long userId, NotificationChannel channel);
+    default int getRemainingQuota(Long userId, NotificationChannel channel) {
+        return peek(userId, channel).remaining();
+    }
 
     /**
-     * Get the time in seconds until the rate limit window resets.
+     * Get the time in seconds until the full quota is available again.
      *
      * @param userId  the user ID
      * @param channel the notification channel
-     * @return seconds until reset, or -1 if no limit is set
+     * @return seconds until reset, or 0 if the quota is already full
      */
-    long getTimeToReset(Long userId, NotificationChannel channel);
+    default long getTimeToReset(Long userId, NotificationChannel channel) {
+        return (peek(userId, channel).resetAfterMs() + 999) / 1000;
+    }
 }
@@ -0,0 +1,292 @@
+package com.example.notification.service.impl;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.RateLimitDecision;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.notification.service.RateLimiterService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.Scheduler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Two-tier rate limiter: each node leases a block of a user's GCRA quota from Redis
+ * and spends it from memory, going back to Redis only when the lease is used up or expires.
+ * Unspent permits are refunded when a lease expires, so a node never sits on quota for longer than the lease TTL.
+ * A key's first lease is a single permit, so a one-off send costs one Redis call and leaves nothing to refund;
+ * each refill within the lease TTL doubles the lease, up to the configured lease size.
+ */
+@Service
+@Primary
+@ConditionalOnProperty(prefix = "notification.rate-limit-lease", name = "enabled", havingValue = "true")
+@Slf4j
+public class LeasedRateLimiterServiceImpl implements RateLimiterService {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> LEASE_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/lease-rate-limit.lua"), List.class);
+
+    private static final int REFUND_THREADS = 2;
+
+    private final StringRedisTemplate redisTemplate;
+    private final RateLimiterServiceImpl redisLimiter;
+    private final NotificationProperties.RateLimitLeaseConfig config;
+    private final ExecutorService refundExecutor;
+    private final Cache<String, Lease> leases;
+    private final ReentrantLock[] stripes;
+    private final Counter localDecisions;
+    private final Counter redisDecisions;
+
+    public LeasedRateLimiterServiceImpl(
+            @Qualifier("notificationRedisTemplate") StringRedisTemplate redisTemplate,
+            RateLimiterServiceImpl redisLimiter,
+            NotificationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.redisTemplate = redisTemplate;
+        this.redisLimiter = redisLimiter;
+        this.config = properties.getRateLimitLease();
+
+        // Power of two so a stripe is picked with a mask
+        int stripeCount = Integer.highestOneBit(Math.max(1, config.getStripes() - 1) << 1);
+        this.stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+
+        // Refunds block on Redis, so they get their own threads rather than Caffeine's default commonPool.
+        // The queue is unbounded because a rejected refund would run on the caller, which may hold a stripe lock.
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("rate-limit-refund-");
+        threadFactory.setDaemon(true);
+        this.refundExecutor = Executors.newFixedThreadPool(REFUND_THREADS, threadFactory);
+
+        this.leases = Caffeine.newBuilder()
+                .maximumSize(config.getMaxLeases())
+                .expireAfterWrite(Duration.ofMillis(config.getLeaseTtlMs()))
+                .scheduler(Scheduler.systemScheduler())
+                .executor(refundExecutor)
+                .removalListener(this::onLeaseRemoved)
+                .build();
+
+        this.localDecisions = Counter.builder("notification.rate_limit.decisions")
+                .tag("source", "local")
+                .register(meterRegistry);
+        this.redisDecisions = Counter.builder("notification.rate_limit.decisions")
+                .tag("source", "redis")
+                .register(meterRegistry);
+
+        log.info("Leased rate limiting enabled: lease size {}, lease TTL {} ms, max overshoot {}",
+                config.getLeaseSize(), config.getLeaseTtlMs(), config.getMaxOvershoot());
+    }
+
+    @Override
+    public RateLimitDecision tryConsume(Long userId, NotificationChannel channel) {
+        String key = redisLimiter.buildKey(userId, channel);
+        ReentrantLock lock = stripeFor(key);
+
+        lock.lock();
+        try {
+            long now = System.currentTimeMillis();
+            Lease lease = leases.getIfPresent(key);
+
+            if (lease != null && now < lease.expiresAt) {
+                if (lease.remaining > 0) {
+                    lease.remaining--;
+                    localDecisions.increment();
+                    return lease.decision(now);
+                }
+                if (now < lease.deniedUntil) {
+                    localDecisions.increment();
+                    return lease.decision(now);
+                }
+            }
+
+            // Lease used up, expired or never taken: one Redis call refills it,
+            // returning what an expired lease left unspent in the same call
+            redisDecisions.increment();
+            int refund = 0;
+            int leaseSize = 1;
+            if (lease != null) {
+                refund = lease.remaining;
+                lease.remaining = 0;
+                leaseSize = Math.min(lease.size * 2, config.getLeaseSize());
+            }
+            lease = acquire(key, channel, now, leaseSize, refund);
+            leases.put(key, lease);
+
+            if (lease.remaining == 0 && lease.deniedUntil > now) {
+                log.warn("Rate limit exceeded for user {} on channel {}. Retry after {} ms",
+                        userId, channel, lease.deniedUntil - now);
+                return lease.decision(now);
+            }
+
+            lease.remaining--;
+            return lease.decision(now);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public RateLimitDecision peek(Long userId, NotificationChannel channel) {
+        Lease lease = leases.getIfPresent(redisLimiter.buildKey(userId, channel));
+        int local = lease != null ? lease.remaining : 0;
+
+        RateLimitDecision shared = redisLimiter.peek(userId, channel);
+        if (local == 0) {
+            return shared;
+        }
+        return new RateLimitDecision(true, shared.remaining() + local, 0, shared.resetAfterMs());
+    }
+
+    /**
+     * Return every unspent permit before the node goes away.
+     */
+    @PreDestroy
+    void releaseLeases() {
+        // Removal listeners run asynchronously, so refund here rather than leave it to them
+        leases.asMap().forEach(this::refund);
+        leases.invalidateAll();
+        leases.cleanUp();
+        refundExecutor.shutdown();
+    }
+
+    private Lease acquire(String key, NotificationChannel channel, long now, int leaseSize, int refund) {
+        NotificationProperties.RateLimitConfig limit = redisLimiter.getRateLimitConfig(channel);
+        long windowMs = limit.getWindowSeconds() * 1000L;
+        int wanted = Math.max(1, Math.min(leaseSize, limit.getMaxRequests()));
+
+        List<?> result = execute(key, limit, windowMs, wanted, refund);
+        int granted = (int) toLong(result.get(0));
+        int sharedRemaining = (int) toLong(result.get(1));
+        long retryAfter = toLong(result.get(2));
+        long resetAt = now + toLong(result.get(3));
+
+        if (granted == 0) {
+            // Remember the denial so a blocked user does not turn every send into a Redis call
+            long deniedUntil = now + Math.min(retryAfter, config.getLeaseTtlMs());
+            return new Lease(wanted, 0, sharedRemaining, deniedUntil, resetAt, now + config.getLeaseTtlMs());
+        }
+        return new Lease(wanted, granted, sharedRemaining, 0, resetAt, now + config.getLeaseTtlMs());
+    }
+
+    private void onLeaseRemoved(String key, Lease lease, RemovalCause cause) {
+        if (key == null || lease == null || cause == RemovalCause.REPLACED) {
+            return;
+        }
+        refund(key, lease);
+    }
+
+    private void refund(String key, Lease lease) {
+        int unspent;
+        ReentrantLock lock = stripeFor(key);
+        lock.lock();
+        try {
+            unspent = lease.remaining;
+            lease.remaining = 0;
+        } finally {
+            lock.unlock();
+        }
+
+        if (unspent == 0) {
+            return;
+        }
+
+        try {
+            NotificationChannel channel = channelOf(key);
+            NotificationProperties.RateLimitConfig limit = redisLimiter.getRateLimitConfig(channel);
+            execute(key, limit, limit.getWindowSeconds() * 1000L, 0, unspent);
+            log.debug("Refunded {} unspent permits for {}", unspent, key);
+        } catch (Exception e) {
+            // Unrefunded permits only make the user's limit stricter until the window slides past them
+            log.warn("Failed to refund {} permits for {}: {}", unspent, key, e.getMessage());
+        }
+    }
+
+    private List<?> execute(String key, NotificationProperties.RateLimitConfig limit,
+                            long windowMs, int wanted, int refund) {
+        long overshootMs = (long) (windowMs * config.getMaxOvershoot());
+
+        List<?> result = redisTemplate.execute(
+                LEASE_SCRIPT,
+                List.of(key),
+                String.valueOf(limit.getMaxRequests()),
+                String.valueOf(windowMs),
+                String.valueOf(wanted),
+                String.valueOf(refund),
+                String.valueOf(overshootMs)
+        );
+
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("Rate limit lease script returned no result for " + key);
+        }
+        return result;
+    }
+
+    private ReentrantLock stripeFor(String key) {
+        int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static NotificationChannel channelOf(String key) {
+        // Key format: notification:rate_limit:{channel}:{userId}
+        String[] parts = key.split(":");
+        return NotificationChannel.valueOf(parts[parts.length - 2].toUpperCase());
+    }
+
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
+    }
+
+    /**
+     * Permits one node holds for one user and channel. Guarded by the key's stripe lock.
+     */
+    private static final class Lease {
+
+        /**
+         * Permits asked for, which sizes the next lease for the same key
+         */
+        private final int size;
+        private int remaining;
+        private final int sharedRemaining;
+        private final long deniedUntil;
+        private final long resetAt;
+        private final long expiresAt;
+
+        private Lease(int size, int remaining, int sharedRemaining, long deniedUntil, long resetAt, long expiresAt) {
+            this.size = size;
+            this.remaining = remaining;
+            this.sharedRemaining = sharedRemaining;
+            this.deniedUntil = deniedUntil;
+            this.resetAt = resetAt;
+            this.expiresAt = expiresAt;
+        }
+
+        private RateLimitDecision decision(long now) {
+            boolean allowed = deniedUntil <= now;
+            return new RateLimitDecision(
+                    allowed,
+                    remaining + sharedRemaining,
+                    allowed ? 0 : deniedUntil - now,
+                    Math.max(0, resetAt - now)
+            );
+        }
+    }
+}
@@ -1,10 +1,13 @@
 package com.example.notification.service.impl;
 
+import com.example.config.notification.NotificationProperties;
 import com.example.notification.model.dto.*;
 import com.example.notification.model.entity.Notification;
+import com.example.notification.model.entity.NotificationOutbox;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.model.enums.NotificationStatus;
-import com.example.notification.publisher.ChannelPublisher;
+import com.example.notification.publisher.NotificationOutboxRelay;
+import com.example.notification.repository.NotificationOutboxRepository;
 import com.example.notification.repository.NotificationRepository;
 import com.example.notification.service.NotificationService;
 import com.example.notification.service.RateLimiterService;
@@ -15,7 +18,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -26,34 +31,38 @@ import java.util.*;
  * 1. Rate limit check
  * 2. Template rendering
  * 3. Database persistence
- * 4. Queue publishing
+ * 4. Outbox write in the same transaction (relayed to the queue after commit)
  */
 @Slf4j
 @Service
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationOutboxRelay outboxRelay;
     private final RateLimiterService rateLimiterService;
     private final TemplateRenderer templateRenderer;
-    private final Map<NotificationChannel, ChannelPublisher> publishers;
     private final ObjectMapper objectMapper;
+    private final NotificationProperties properties;
+    private final TransactionTemplate transactionTemplate;
 
     public NotificationServiceImpl(
         NotificationRepository notificationRepository,
+        NotificationOutboxRepository outboxRepository,
+        NotificationOutboxRelay outboxRelay,
         RateLimiterService rateLimiterService,
         TemplateRenderer templateRenderer,
-        List<ChannelPublisher> channelPublishers,
-        ObjectMapper objectMapper) {
+        ObjectMapper objectMapper,
+        NotificationProperties properties,
+        PlatformTransactionManager transactionManager) {
         this.notificationRepository = notificationRepository;
+        this.outboxRepository = outboxRepository;
+        this.outboxRelay = outboxRelay;
         this.rateLimiterService = rateLimiterService;
         this.templateRenderer = templateRenderer;
         this.objectMapper = objectMapper;
-
-        // Build publisher map for quick lookup
-        this.publishers = new EnumMap<>(NotificationChannel.class);
-        for (ChannelPublisher publisher : channelPublishers) {
-            publishers.put(publisher.getChannel(), publisher);
-        }
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
     @Override
@@ -84,6 +93,26 @@ public class NotificationServiceImpl implements NotificationService {
         return notificationIds;
     }
 
+    @Override
+    public int sendBatch(BatchNotificationRequest request) {
+        List<BatchRecipient> recipients = request.getRecipients();
+        int chunkSize = properties.getBatch().getChunkSize();
+        int queued = 0;
+
+        log.info("Sending batch {} notification '{}' to {} recipients",
+            request.getChannel(), request.getTemplateCode(), recipients.size());
+
+        for (int from = 0; from < recipients.size(); from += chunkSize) {
+            List<BatchRecipient> chunk = recipients.subList(from, Math.min(from + chunkSize, recipients.size()));
+            // One short transaction per chunk keeps the persistence context and lock time bounded
+            Integer saved = transactionTemplate.execute(status -> sendChunk(request, chunk));
+            queued += saved == null ? 0 : saved;
+        }
+
+        log.info("Queued {} of {} batch {} notifications", queued, recipients.size(), request.getChannel());
+        return queued;
+    }
+
     @Override
     @Transactional
     public Long sendEmail(Long userId, String email, String templateCode, Map<String, Object> templateData) {
@@ -237,11 +266,13 @@ public class NotificationServiceImpl implements NotificationService {
 
         Long userId = request.getUserId();
 
-        // Check rate limit (unless skipped)
+        // Check and consume rate limit in one step (unless skipped)
         if (!Boolean.TRUE.equals(request.getSkipRateLimit())) {
-            if (!rateLimiterService.isAllowed(userId, channel)) {
+            RateLimitDecision decision = rateLimiterService.tryConsume(userId, channel);
+            if (!decision.allowed()) {
                 throw new RateLimitExceededException(
-                    String.format("Rate limit exceeded for user %d on channel %s", userId, channel)
+                    String.format("Rate limit exceeded for user %d on channel %s, retry after %d ms",
+                        userId, channel, decision.retryAfterMs())
                 );
             }
         }
@@ -258,12 +289,15 @@ public class NotificationServiceImpl implements NotificationService {
             return null;
         }
 
-        // Render template
-        String renderedContent = templateRenderer.render(
-            channel,
-            request.getTemplateCode(),
-            request.getTemplateData()
-        );
+        // Render template, unless the channel worker renders it just before sending
+        String renderedContent = null;
+        if (!isRenderDeferred(channel)) {
+            renderedContent = templateRenderer.render(
+                channel,
+                request.getTemplateCode(),
+                request.getTemplateData()
+            );
+        }
 
         // Serialize template data for audit
         String templateDataJson = null;
@@ -306,11 +340,6 @@ public class NotificationServiceImpl implements NotificationService {
 
         log.debug("Created {} notification {} for user {}", channel, notificationId, userId);
 
-        // Record rate limit attempt
-        if (!Boolean.TRUE.equals(request.getSkipRateLimit())) {
-            rateLimiterService.recordAttempt(userId, channel);
-        }
-
         // Build message for queue
         NotificationMessage message = NotificationMessage.builder()
             .notificationId(notificationId)
@@ -325,17 +354,133 @@ public class NotificationServiceImpl implements NotificationService {
             .retryCount(0)
             .build();
 
-        // Publish to queue
-        ChannelPublisher publisher = publishers.get(channel);
-        if (publisher != null) {
-            publisher.publish(message);
-        } else {
-            log.error("No publisher found for channel {}", channel);
-        }
+        // Queue the message in the outbox; it commits or rolls back together with the notification
+        outboxRepository.save(toOutbox(message));
+
+        outboxRelay.triggerAfterCommit();
 
         return notificationId;
     }
 
+    /**
+     * Persist one chunk of a batch: notifications and outbox rows go out as JDBC batch inserts.
+     */
+    private int sendChunk(BatchNotificationRequest request, List<BatchRecipient> chunk) {
+        NotificationChannel channel = request.getChannel();
+        boolean checkRateLimit = !Boolean.TRUE.equals(request.getSkipRateLimit());
+
+        List<Notification> notifications = new ArrayList<>(chunk.size());
+        List<Map<String, Object>> templateData = new ArrayList<>(chunk.size());
+
+        for (BatchRecipient batchRecipient : chunk) {
+            Long userId = batchRecipient.getUserId();
+            String recipient = batchRecipient.getRecipient();
+
+            if (channel != NotificationChannel.IN_APP && (recipient == null || recipient.isBlank())) {
+                log.warn("No recipient provided for batch {} notification to user {}", channel, userId);
+                continue;
+            }
+
+            if (checkRateLimit && !rateLimiterService.tryConsume(userId, channel).allowed()) {
+                log.warn("Rate limit exceeded for user {} on channel {}, skipping batch recipient", userId, channel);
+                continue;
+            }
+
+            Map<String, Object> data = new HashMap<>();
+            if (request.getTemplateData() != null) {
+                data.putAll(request.getTemplateData());
+            }
+            if (batchRecipient.getTemplateData() != null) {
+                data.putAll(batchRecipient.getTemplateData());
+            }
+
+            String renderedContent = null;
+            try {
+                if (!isRenderDeferred(channel)) {
+                    renderedContent = templateRenderer.render(channel, request.getTemplateCode(), data);
+                }
+            } catch (Exception e) {
+                log.error("Failed to render batch {} notification for user {}: {}", channel, userId, e.getMessage());
+                continue;
+            }
+
+            notifications.add(Notification.builder()
+                .userId(userId)
+                .channel(channel)
+                .status(NotificationStatus.PENDING)
+                .templateCode(request.getTemplateCode())
+                .recipient(recipient)
+                .subject(request.getSubject())
+                .renderedContent(renderedContent)
+                .templateData(toJson(data))
+                .isRead(false)
+                .retryCount(0)
+                .build());
+            templateData.add(data);
+        }
+
+        if (notifications.isEmpty()) {
+            return 0;
+        }
+
+        // Pooled sequence ids are assigned without a round trip, so these become batched INSERTs
+        notificationRepository.saveAll(notifications);
+
+        List<NotificationOutbox> outboxRows = new ArrayList<>(notifications.size());
+        for (int i = 0; i < notifications.size(); i++) {
+            Notification notification = notifications.get(i);
+            outboxRows.add(toOutbox(NotificationMessage.builder()
+                .notificationId(notification.getId())
+                .userId(notification.getUserId())
+                .channel(channel)
+                .templateCode(notification.getTemplateCode())
+                .recipient(notification.getRecipient())
+                .subject(notification.getSubject())
+                .renderedContent(notification.getRenderedContent())
+                .templateData(templateData.get(i))
+                .priority(request.getPriority())
+                .retryCount(0)
+                .build()));
+        }
+        outboxRepository.saveAll(outboxRows);
+
+        outboxRelay.triggerAfterCommit();
+
+        return notifications.size();
+    }
+
+    /**
+     * IN_APP content is served straight from the notification row, so it is always rendered up front.
+     */
+    private boolean isRenderDeferred(NotificationChannel channel) {
+        return channel != NotificationChannel.IN_APP
+            && properties.getTemplate().getRenderMode() == NotificationProperties.RenderMode.DEFERRED;
+    }
+
+    private NotificationOutbox toOutbox(NotificationMessage message) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(message);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification message " + message.getNotificationId(), e);
+        }
+
+        return NotificationOutbox.builder()
+            .notificationId(message.getNotificationId())
+            .channel(message.getChannel())
+            .payload(payload)
+            .build();
+    }
+
+    private String toJson(Map<String, Object> data) {
+        try {
+            return objectMapper.writeValueAsString(data);
+        } catch (JsonProcessingException e) {
+            log.warn("Failed to serialize template data: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Exception for rate limit exceeded.
      */
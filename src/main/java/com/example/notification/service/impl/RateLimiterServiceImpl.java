@@ -1,18 +1,22 @@
 package com.example.notification.service.impl;
 
 import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.RateLimitDecision;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.service.RateLimiterService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.ClassPathResource;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
 
-import java.time.Duration;
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
- * Redis-based rate limiter implementation using token bucket algorithm.
+ * Redis-based rate limiter using the generic cell rate algorithm (GCRA).
+ * Each check is a single script call that reads, decides and updates atomically,
+ * so concurrent sends cannot overshoot the limit and every key carries its own expiry.
  */
 @Service
 @Slf4j
@@ -20,6 +24,10 @@ public class RateLimiterServiceImpl implements RateLimiterService {
 
     private static final String RATE_LIMIT_KEY_PREFIX = "notification:rate_limit:";
 
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> GCRA_SCRIPT =
+            RedisScript.of(new ClassPathResource("redis/gcra-rate-limit.lua"), List.class);
+
     private final StringRedisTemplate redisTemplate;
     private final NotificationProperties properties;
 
@@ -31,63 +39,57 @@ public class RateLimiterServiceImpl implements RateLimiterService {
     }
 
     @Override
-    public boolean isAllowed(Long userId, NotificationChannel channel) {
-        String key = buildKey(userId, channel);
-        NotificationProperties.RateLimitConfig config = getRateLimitConfig(channel);
-
-        String currentCountStr = redisTemplate.opsForValue().get(key);
-        int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
-
-        boolean allowed = currentCount < config.getMaxRequests();
-
-        if (!allowed) {
-            log.warn("Rate limit exceeded for user {} on channel {}. Current: {}, Max: {}",
-                    userId, channel, currentCount, config.getMaxRequests());
+    public RateLimitDecision tryConsume(Long userId, NotificationChannel channel) {
+        RateLimitDecision decision = execute(userId, channel, 1);
+
+        if (!decision.allowed()) {
+            log.warn("Rate limit exceeded for user {} on channel {}. Retry after {} ms",
+                    userId, channel, decision.retryAfterMs());
+        } else {
+            log.debug("Consumed rate limit for user {} on channel {}. Remaining: {}",
+                    userId, channel, decision.remaining());
         }
 
-        return allowed;
+        return decision;
     }
 
     @Override
-    public void recordAttempt(Long userId, NotificationChannel channel) {
-        String key = buildKey(userId, channel);
-        NotificationProperties.RateLimitConfig config = getRateLimitConfig(channel);
-
-        Long newCount = redisTemplate.opsForValue().increment(key);
-
-        // Set expiration only if this is a new key (count == 1)
-        if (newCount != null && newCount == 1) {
-            redisTemplate.expire(key, Duration.ofSeconds(config.getWindowSeconds()));
-        }
-
-        log.debug("Recorded notification attempt for user {} on channel {}. Count: {}",
-                userId, channel, newCount);
+    public RateLimitDecision peek(Long userId, NotificationChannel channel) {
+        return execute(userId, channel, 0);
     }
 
-    @Override
-    public int getRemainingQuota(Long userId, NotificationChannel channel) {
-        String key = buildKey(userId, channel);
+    private RateLimitDecision execute(Long userId, NotificationChannel channel, int permits) {
         NotificationProperties.RateLimitConfig config = getRateLimitConfig(channel);
 
-        String currentCountStr = redisTemplate.opsForValue().get(key);
-        int currentCount = currentCountStr != null ? Integer.parseInt(currentCountStr) : 0;
+        List<?> result = redisTemplate.execute(
+                GCRA_SCRIPT,
+                List.of(buildKey(userId, channel)),
+                String.valueOf(config.getMaxRequests()),
+                String.valueOf(config.getWindowSeconds() * 1000L),
+                String.valueOf(permits)
+        );
 
-        return Math.max(0, config.getMaxRequests() - currentCount);
-    }
+        if (result == null || result.size() < 4) {
+            throw new IllegalStateException("Rate limit script returned no result for user " + userId);
+        }
 
-    @Override
-    public long getTimeToReset(Long userId, NotificationChannel channel) {
-        String key = buildKey(userId, channel);
+        return new RateLimitDecision(
+                toLong(result.get(0)) == 1,
+                (int) toLong(result.get(1)),
+                toLong(result.get(2)),
+                toLong(result.get(3))
+        );
+    }
 
-        Long ttl = redisTemplate.getExpire(key, TimeUnit.SECONDS);
-        return ttl != null ? ttl : -1;
+    private static long toLong(Object value) {
+        return ((Number) value).longValue();
     }
 
     /**
      * Build the Redis key for rate limiting.
      * Format: notification:rate_limit:{channel}:{userId}
      */
-    private String buildKey(Long userId, NotificationChannel channel) {
+    String buildKey(Long userId, NotificationChannel channel) {
         return RATE_LIMIT_KEY_PREFIX + channel.name().toLowerCase() + ":" + userId;
     }
 
@@ -95,7 +97,7 @@ public class RateLimiterServiceImpl implements RateLimiterService {
      * Get rate limit configuration for a channel.
      * Falls back to default values if not configured.
      */
-    private NotificationProperties.RateLimitConfig getRateLimitConfig(NotificationChannel channel) {
+    NotificationProperties.RateLimitConfig getRateLimitConfig(NotificationChannel channel) {
         NotificationProperties.RateLimitConfig config =
                 properties.getRateLimit().get(channel.name().toLowerCase());
 
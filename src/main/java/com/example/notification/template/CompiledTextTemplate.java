@@ -0,0 +1,94 @@
+package com.example.notification.template;
+
+import org.unbescape.html.HtmlEscape;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A text template compiled once into literal and variable segments.
+ * Supports the inlined output expressions used by the text templates: {@code [(${name})]} writes the value as is,
+ * and {@code [[${name}]]} HTML-escapes it, the way Thymeleaf does in TEXT mode.
+ */
+final class CompiledTextTemplate {
+
+    private static final Pattern INLINE_EXPRESSION = Pattern.compile("\\[\\((.*?)\\)]|\\[\\[(.*?)]]", Pattern.DOTALL);
+    private static final Pattern SIMPLE_VARIABLE = Pattern.compile("\\$\\{\\s*([A-Za-z_][A-Za-z0-9_]*)\\s*}");
+
+    private final String[] literals;
+    private final String[] variables;
+    private final boolean[] escaped;
+    private final int literalLength;
+
+    private CompiledTextTemplate(List<String> literals, List<String> variables, List<Boolean> escaped) {
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.escaped = new boolean[escaped.size()];
+        for (int i = 0; i < this.escaped.length; i++) {
+            this.escaped[i] = escaped.get(i);
+        }
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * Compile a template, or return null if it uses anything beyond plain variable output
+     * (element syntax, nested properties, operators) and must go through Thymeleaf.
+     */
+    static CompiledTextTemplate compile(String source) {
+        if (source.contains("[#") || source.contains("[/")) {
+            return null;
+        }
+
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+        List<Boolean> escaped = new ArrayList<>();
+        Matcher matcher = INLINE_EXPRESSION.matcher(source);
+        int position = 0;
+
+        while (matcher.find()) {
+            String expression = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+            Matcher variable = SIMPLE_VARIABLE.matcher(expression.trim());
+            if (!variable.matches()) {
+                return null;
+            }
+
+            literals.add(source.substring(position, matcher.start()));
+            variables.add(variable.group(1));
+            escaped.add(matcher.group(1) == null);
+            position = matcher.end();
+        }
+        literals.add(source.substring(position));
+
+        return new CompiledTextTemplate(literals, variables, escaped);
+    }
+
+    /**
+     * Append the rendered template to {@code out}; missing or null variables render as empty text.
+     */
+    void renderTo(StringBuilder out, Map<String, Object> data) {
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]);
+            Object value = data != null ? data.get(variables[i]) : null;
+            if (value == null) {
+                continue;
+            }
+            if (escaped[i]) {
+                // Same escaping Thymeleaf applies to [[...]] in TEXT mode
+                out.append(HtmlEscape.escapeHtml4Xml(String.valueOf(value)));
+            } else {
+                out.append(value);
+            }
+        }
+        out.append(literals[variables.length]);
+    }
+
+    /**
+     * Size hint for the output buffer: all literal text plus a few characters per variable.
+     */
+    int estimatedLength() {
+        return literalLength + variables.length * 16;
+    }
+}
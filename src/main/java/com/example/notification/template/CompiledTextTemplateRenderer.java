@@ -0,0 +1,111 @@
+package com.example.notification.template;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.enums.NotificationChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Renders SMS, WhatsApp and push templates without going through Thymeleaf.
+ * Each template is compiled once into segments and rendered into a per-thread buffer;
+ * HTML channels and templates using more than plain variable output fall back to {@link FileTemplateRenderer}.
+ */
+@Service
+@Primary
+@Slf4j
+public class CompiledTextTemplateRenderer implements TemplateRenderer {
+
+    // Buffers that grew past this are not kept, so one large push payload does not pin memory per thread
+    private static final int MAX_REUSED_CAPACITY = 8 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(512));
+
+    private final FileTemplateRenderer thymeleafRenderer;
+    private final ResourceLoader resourceLoader;
+    private final NotificationProperties properties;
+    private final ConcurrentMap<String, Optional<CompiledTextTemplate>> compiled = new ConcurrentHashMap<>();
+
+    public CompiledTextTemplateRenderer(
+            FileTemplateRenderer thymeleafRenderer,
+            ResourceLoader resourceLoader,
+            NotificationProperties properties) {
+        this.thymeleafRenderer = thymeleafRenderer;
+        this.resourceLoader = resourceLoader;
+        this.properties = properties;
+    }
+
+    @Override
+    public String render(NotificationChannel channel, String templateCode, Map<String, Object> data) {
+        if (!isTextChannel(channel)) {
+            return thymeleafRenderer.render(channel, templateCode, data);
+        }
+
+        CompiledTextTemplate template = compiledTemplate(channel, templateCode);
+        if (template == null) {
+            return thymeleafRenderer.render(channel, templateCode, data);
+        }
+
+        // Virtual threads are not reused, so a thread-local buffer would only add garbage there
+        if (Thread.currentThread().isVirtual()) {
+            StringBuilder out = new StringBuilder(template.estimatedLength());
+            template.renderTo(out, data);
+            return out.toString();
+        }
+
+        StringBuilder out = BUFFER.get();
+        out.setLength(0);
+        template.renderTo(out, data);
+        String rendered = out.toString();
+        if (out.capacity() > MAX_REUSED_CAPACITY) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    @Override
+    public boolean templateExists(NotificationChannel channel, String templateCode) {
+        return thymeleafRenderer.templateExists(channel, templateCode);
+    }
+
+    private CompiledTextTemplate compiledTemplate(NotificationChannel channel, String templateCode) {
+        String templateName = channel.getFolderName() + "/" + templateCode;
+        if (!properties.getTemplate().isCacheEnabled()) {
+            return compile(channel, templateName).orElse(null);
+        }
+        return compiled.computeIfAbsent(templateName, name -> compile(channel, name)).orElse(null);
+    }
+
+    private Optional<CompiledTextTemplate> compile(NotificationChannel channel, String templateName) {
+        Resource resource = resourceLoader.getResource(
+                properties.getTemplate().getBasePath() + templateName + channel.getTemplateExtension());
+        if (!resource.exists()) {
+            return Optional.empty();
+        }
+
+        try (InputStream in = resource.getInputStream()) {
+            CompiledTextTemplate template = CompiledTextTemplate.compile(new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            if (template == null) {
+                log.debug("Template {} uses more than variable output, rendering it with Thymeleaf", templateName);
+            }
+            return Optional.ofNullable(template);
+        } catch (IOException e) {
+            log.warn("Failed to read template {}: {}", templateName, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private static boolean isTextChannel(NotificationChannel channel) {
+        return !".html".equals(channel.getTemplateExtension());
+    }
+}
@@ -22,6 +22,7 @@ public class FileTemplateRenderer implements TemplateRenderer {
 
     @Qualifier("notificationTemplateEngine")
     private final SpringTemplateEngine templateEngine;
+    private final NotificationTemplateRegistry templateRegistry;
 
     @Override
     public String render(NotificationChannel channel, String templateCode, Map<String, Object> data) {
@@ -49,16 +50,7 @@ public class FileTemplateRenderer implements TemplateRenderer {
 
     @Override
     public boolean templateExists(NotificationChannel channel, String templateCode) {
-        String templateName = buildTemplatePath(channel, templateCode);
-        try {
-            // Try to process a simple check - if template doesn't exist, this will throw
-            Context context = new Context(Locale.getDefault());
-            templateEngine.process(templateName, context);
-            return true;
-        } catch (Exception e) {
-            log.debug("Template not found: {} for channel: {}", templateCode, channel);
-            return false;
-        }
+        return templateRegistry.exists(channel, templateCode);
     }
 
     /**
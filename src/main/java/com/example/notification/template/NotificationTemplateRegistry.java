@@ -0,0 +1,129 @@
+package com.example.notification.template;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.enums.NotificationChannel;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Index of every notification template on the classpath, built once at startup.
+ * Each template is parsed and rendered once so the engine's template cache and SpEL compiler
+ * are warm before the first real notification, and existence checks are a set lookup.
+ */
+@Component
+@Slf4j
+public class NotificationTemplateRegistry {
+
+    private static final Map<String, NotificationChannel> CHANNELS_BY_FOLDER = Arrays.stream(NotificationChannel.values())
+            .collect(Collectors.toUnmodifiableMap(NotificationChannel::getFolderName, Function.identity()));
+
+    private final SpringTemplateEngine templateEngine;
+    private final ResourcePatternResolver resourceResolver;
+    private final NotificationProperties properties;
+
+    private volatile Set<String> templates = Set.of();
+
+    public NotificationTemplateRegistry(
+            @Qualifier("notificationTemplateEngine") SpringTemplateEngine templateEngine,
+            ResourcePatternResolver resourceResolver,
+            NotificationProperties properties) {
+        this.templateEngine = templateEngine;
+        this.resourceResolver = resourceResolver;
+        this.properties = properties;
+    }
+
+    @PostConstruct
+    void loadTemplates() {
+        long start = System.nanoTime();
+        String basePath = properties.getTemplate().getBasePath();
+
+        Resource[] resources;
+        try {
+            resources = resourceResolver.getResources(basePath + "*/*.*");
+        } catch (IOException e) {
+            log.warn("Could not scan notification templates under {}: {}", basePath, e.getMessage());
+            return;
+        }
+
+        Set<String> found = new HashSet<>();
+        int warmed = 0;
+        for (Resource resource : resources) {
+            String templateName = templateName(resource);
+            if (templateName == null) {
+                continue;
+            }
+            found.add(templateName);
+
+            if (warmUp(templateName)) {
+                warmed++;
+            }
+        }
+
+        templates = Set.copyOf(found);
+        log.info("Registered {} notification templates ({} warmed) in {} ms",
+                found.size(), warmed, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Whether a template exists for the channel, without touching the template engine.
+     */
+    public boolean exists(NotificationChannel channel, String templateCode) {
+        return templates.contains(channel.getFolderName() + "/" + templateCode);
+    }
+
+    /**
+     * Parse the template into the engine cache with a render against an empty context.
+     */
+    private boolean warmUp(String templateName) {
+        try {
+            templateEngine.process(templateName, new Context(Locale.getDefault()));
+            return true;
+        } catch (Exception e) {
+            // Templates that need their variables still got parsed and cached before failing
+            log.debug("Warm-up render of template {} failed: {}", templateName, e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Map {@code .../{channelFolder}/{templateCode}.{ext}} to the {@code {channelFolder}/{templateCode}} name
+     * used by the renderer, ignoring files outside a channel folder.
+     */
+    private static String templateName(Resource resource) {
+        String fileName = resource.getFilename();
+        if (fileName == null || fileName.indexOf('.') <= 0) {
+            return null;
+        }
+
+        String path;
+        try {
+            path = resource.getURL().getPath();
+        } catch (IOException e) {
+            return null;
+        }
+
+        String parent = path.substring(0, path.length() - fileName.length() - 1);
+        String folder = parent.substring(parent.lastIndexOf('/') + 1);
+        NotificationChannel channel = CHANNELS_BY_FOLDER.get(folder);
+        if (channel == null) {
+            return null;
+        }
+
+        return channel.getFolderName() + "/" + fileName.substring(0, fileName.lastIndexOf('.'));
+    }
+}
@@ -1,11 +1,13 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.provider.email.EmailProvider;
 import com.example.notification.repository.NotificationRepository;
+import com.example.notification.template.TemplateRenderer;
 import com.rabbitmq.client.Channel;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
@@ -24,12 +26,14 @@ public class EmailWorker extends NotificationWorker {
     public EmailWorker(
             NotificationRepository notificationRepository,
             RetryHandler retryHandler,
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
             EmailProvider emailProvider) {
-        super(notificationRepository, retryHandler);
+        super(notificationRepository, retryHandler, templateRenderer, renderedContentWriter);
         this.emailProvider = emailProvider;
     }
 
-    @RabbitListener(queues = "notification.email.queue", containerFactory = "rabbitListenerContainerFactory")
+    @RabbitListener(queues = "notification.email.queue", containerFactory = "emailListenerContainerFactory")
     public void onMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
         log.debug("Received EMAIL notification message: {}", notificationMessage.getNotificationId());
         processMessage(notificationMessage, message, channel);
@@ -1,20 +1,20 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.dto.ProviderResponse;
-import com.example.notification.model.entity.Notification;
 import com.example.notification.model.enums.NotificationChannel;
-import com.example.notification.model.enums.NotificationStatus;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.repository.NotificationRepository;
+import com.example.notification.template.TemplateRenderer;
 import com.rabbitmq.client.Channel;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.List;
 import java.util.UUID;
 
 /**
@@ -25,63 +25,23 @@ import java.util.UUID;
 @Slf4j
 public class InAppWorker extends NotificationWorker {
 
-    public InAppWorker(NotificationRepository notificationRepository, RetryHandler retryHandler) {
-        super(notificationRepository, retryHandler);
-    }
-
-    @RabbitListener(queues = "notification.inapp.queue", containerFactory = "rabbitListenerContainerFactory")
-    @Transactional
-    public void onMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
-        log.debug("Received IN_APP notification message: {}", notificationMessage.getNotificationId());
-
-        Long notificationId = notificationMessage.getNotificationId();
-
-        try {
-            // Fetch notification from database
-            Notification notification = notificationRepository.findById(notificationId).orElse(null);
-
-            if (notification == null) {
-                log.error("Notification {} not found in database. Acknowledging message.", notificationId);
-                acknowledgeMessage(channel, message);
-                return;
-            }
-
-            // For IN_APP, we just mark it as delivered
-            // The content is already stored in the notification record
-            notification.setStatus(NotificationStatus.DELIVERED);
-            notification.setDeliveredAt(java.time.LocalDateTime.now());
-            notification.setSentAt(java.time.LocalDateTime.now());
-            notification.setExternalId(UUID.randomUUID().toString()); // Generate internal ID
-            notification.setProviderResponse("{\"status\":\"stored\"}");
+    private final NotificationBatchProcessor batchProcessor;
 
-            notificationRepository.save(notification);
-
-            log.info("IN_APP notification {} delivered (stored in database)", notificationId);
-
-            acknowledgeMessage(channel, message);
-
-        } catch (Exception e) {
-            log.error("Error processing IN_APP notification {}: {}",
-                    notificationId, e.getMessage(), e);
+    public InAppWorker(
+            NotificationRepository notificationRepository,
+            RetryHandler retryHandler,
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
+            NotificationBatchProcessor batchProcessor) {
+        super(notificationRepository, retryHandler, templateRenderer, renderedContentWriter);
+        this.batchProcessor = batchProcessor;
+    }
 
-            try {
-                Notification notification = notificationRepository.findById(notificationId).orElse(null);
-                if (notification != null) {
-                    retryHandler.handleFailure(
-                            notification,
-                            notificationMessage,
-                            e.getMessage(),
-                            "PROCESSING_ERROR",
-                            com.example.notification.model.enums.ErrorType.RETRIABLE
-                    );
-                }
-                acknowledgeMessage(channel, message);
-            } catch (Exception ex) {
-                log.error("Failed to handle error for IN_APP notification {}: {}",
-                        notificationId, ex.getMessage());
-                rejectMessage(channel, message);
-            }
-        }
+    @RabbitListener(queues = "notification.inapp.queue", containerFactory = "inAppListenerContainerFactory")
+    public void onMessages(List<Message<NotificationMessage>> messages, Channel channel) {
+        log.debug("Received batch of {} IN_APP notification messages", messages.size());
+        // For IN_APP, delivery is just marking the stored notification as delivered
+        processBatch(messages, channel, batchProcessor::deliverStored);
     }
 
     @Override
@@ -0,0 +1,258 @@
+package com.example.notification.worker;
+
+import com.example.notification.handler.RenderedContentWriter;
+import com.example.notification.handler.RetryHandler;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.dto.ProviderResponse;
+import com.example.notification.model.entity.Notification;
+import com.example.notification.model.enums.ErrorType;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.notification.provider.NotificationProvider;
+import com.example.notification.repository.NotificationBatchUpdates;
+import com.example.notification.repository.NotificationRepository;
+import com.example.notification.template.TemplateRenderer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Processes a batch of queue messages for one channel with a fixed number of database round trips:
+ * one conditional UPDATE to claim the rows and one IN query to load them, provider sends outside any
+ * transaction, then one batched UPDATE for the deliveries and one transaction of bulk UPDATEs, grouped
+ * by outcome, for the failures. Providers with a
+ * batch API get the whole batch in one call; the rest are sent concurrently one message at a time.
+ * IN_APP batches need no provider and are delivered with a single statement, see {@link #deliverStored}.
+ */
+@Component
+@Slf4j
+public class NotificationBatchProcessor {
+
+    private final NotificationRepository notificationRepository;
+    private final RetryHandler retryHandler;
+    private final TemplateRenderer templateRenderer;
+    private final RenderedContentWriter renderedContentWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor sendExecutor;
+
+    public NotificationBatchProcessor(
+            NotificationRepository notificationRepository,
+            RetryHandler retryHandler,
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("notificationTaskExecutor") Executor sendExecutor) {
+        this.notificationRepository = notificationRepository;
+        this.retryHandler = retryHandler;
+        this.templateRenderer = templateRenderer;
+        this.renderedContentWriter = renderedContentWriter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sendExecutor = sendExecutor;
+    }
+
+    /**
+     * Send every message in the batch. Failures go through {@link RetryHandler} together in one transaction,
+     * so when this returns every message has been dealt with and the batch can be acknowledged.
+     */
+    public void process(NotificationChannel channel, List<NotificationMessage> messages, NotificationProvider provider) {
+        Map<Long, NotificationMessage> byId = messages.stream()
+                .collect(Collectors.toMap(NotificationMessage::getNotificationId, Function.identity(),
+                        (first, duplicate) -> first, LinkedHashMap::new));
+
+        List<Notification> claimed = claim(byId);
+        if (claimed.isEmpty()) {
+            return;
+        }
+
+        if (provider == null || !provider.isEnabled()) {
+            log.warn("{} provider is not available. Moving {} notifications to retry.", channel, claimed.size());
+            retryHandler.handleFailures(claimed.stream()
+                    .map(notification -> new RetryHandler.Failure(notification, byId.get(notification.getId()),
+                            "Provider not available", "PROVIDER_UNAVAILABLE", ErrorType.RETRIABLE))
+                    .toList());
+            return;
+        }
+
+        List<NotificationMessage> toSend = claimed.stream()
+                .map(notification -> byId.get(notification.getId()))
+                .toList();
+        Map<Long, ProviderResponse> responses = provider.supportsBatchSend()
+                ? sendAsBatch(channel, toSend, provider)
+                : sendConcurrently(channel, toSend, provider);
+
+        List<NotificationBatchUpdates.Delivery> delivered = new ArrayList<>();
+        List<RetryHandler.Failure> failed = new ArrayList<>();
+        for (Notification notification : claimed) {
+            ProviderResponse response = responses.get(notification.getId());
+            if (response == null) {
+                continue;
+            }
+            if (response.isSuccess()) {
+                delivered.add(new NotificationBatchUpdates.Delivery(
+                        notification.getId(), response.getMessageId(), response.getRawResponse()));
+            } else {
+                failed.add(new RetryHandler.Failure(notification, byId.get(notification.getId()),
+                        response.getErrorMessage(), response.getErrorCode(), response.getErrorType()));
+            }
+        }
+
+        recordDelivered(delivered);
+        retryHandler.handleFailures(failed);
+
+        log.info("Processed {} {} notifications in batch: {} delivered, {} failed",
+                claimed.size(), channel, delivered.size(), failed.size());
+    }
+
+    /**
+     * Deliver a batch of IN_APP notifications. Storing the row is the delivery and IN_APP content is rendered
+     * up front, so one conditional UPDATE marks the whole batch DELIVERED on the listener thread:
+     * no claim, no load, no executor hop. Missing, finished and in-flight rows are left alone.
+     */
+    public void deliverStored(List<NotificationMessage> messages) {
+        Set<Long> ids = messages.stream()
+                .map(NotificationMessage::getNotificationId)
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        List<Long> delivered = notificationRepository.markDeliveredIfPending(ids, LocalDateTime.now());
+        if (delivered.size() < ids.size()) {
+            log.info("{} of {} IN_APP notifications were missing, finished or already being processed",
+                    ids.size() - delivered.size(), ids.size());
+        }
+        log.info("Delivered {} IN_APP notifications in batch", delivered.size());
+    }
+
+    /**
+     * Claim the batch with one conditional UPDATE, then load the claimed rows in one IN query.
+     * Missing rows, finished rows (duplicate deliveries) and rows another worker is sending are skipped.
+     */
+    private List<Notification> claim(Map<Long, NotificationMessage> byId) {
+        List<Long> claimedIds = retryHandler.claimForProcessing(byId.keySet());
+        if (claimedIds.size() < byId.size()) {
+            log.info("{} of {} batch notifications were missing, finished or already being sent",
+                    byId.size() - claimedIds.size(), byId.size());
+        }
+        if (claimedIds.isEmpty()) {
+            return List.of();
+        }
+        return notificationRepository.findAllById(claimedIds);
+    }
+
+    private Map<Long, ProviderResponse> sendConcurrently(
+            NotificationChannel channel, List<NotificationMessage> messages, NotificationProvider provider) {
+        Map<Long, CompletableFuture<ProviderResponse>> sends = new LinkedHashMap<>();
+        for (NotificationMessage message : messages) {
+            sends.put(message.getNotificationId(), sendAsync(channel, message, provider));
+        }
+
+        Map<Long, ProviderResponse> responses = new LinkedHashMap<>();
+        sends.forEach((id, send) -> responses.put(id, send.join()));
+        return responses;
+    }
+
+    /**
+     * Render every message, then hand all that rendered to the provider in one batch call.
+     * The provider answers per message, in order, so each response maps back to its notification.
+     */
+    private Map<Long, ProviderResponse> sendAsBatch(
+            NotificationChannel channel, List<NotificationMessage> messages, NotificationProvider provider) {
+        Map<Long, ProviderResponse> responses = new LinkedHashMap<>();
+        List<NotificationMessage> rendered = new ArrayList<>(messages.size());
+        for (NotificationMessage message : messages) {
+            ProviderResponse renderFailure = render(channel, message);
+            if (renderFailure != null) {
+                responses.put(message.getNotificationId(), renderFailure);
+            } else {
+                rendered.add(message);
+            }
+        }
+        if (rendered.isEmpty()) {
+            return responses;
+        }
+
+        List<ProviderResponse> results;
+        try {
+            results = provider.sendBatch(rendered);
+        } catch (Exception e) {
+            log.error("Error sending batch of {} {} notifications: {}", rendered.size(), channel, e.getMessage());
+            ProviderResponse failure = ProviderResponse.retriableFailure(e.getMessage(), "PROCESSING_ERROR", null);
+            results = Collections.nCopies(rendered.size(), failure);
+        }
+
+        for (int i = 0; i < rendered.size(); i++) {
+            responses.put(rendered.get(i).getNotificationId(), results.get(i));
+        }
+        return responses;
+    }
+
+    private CompletableFuture<ProviderResponse> sendAsync(
+            NotificationChannel channel, NotificationMessage message, NotificationProvider provider) {
+        try {
+            return CompletableFuture.supplyAsync(() -> send(channel, message, provider), sendExecutor);
+        } catch (RejectedExecutionException e) {
+            // Executor saturated: send on the listener thread rather than drop the message
+            return CompletableFuture.completedFuture(send(channel, message, provider));
+        }
+    }
+
+    private ProviderResponse send(NotificationChannel channel, NotificationMessage message, NotificationProvider provider) {
+        ProviderResponse renderFailure = render(channel, message);
+        if (renderFailure != null) {
+            return renderFailure;
+        }
+
+        try {
+            return provider.send(message);
+        } catch (Exception e) {
+            log.error("Error sending {} notification {}: {}", channel, message.getNotificationId(), e.getMessage());
+            return ProviderResponse.retriableFailure(e.getMessage(), "PROCESSING_ERROR", null);
+        }
+    }
+
+    /**
+     * Render a deferred template into the message.
+     *
+     * @return a permanent failure if the template cannot be rendered, otherwise null
+     */
+    private ProviderResponse render(NotificationChannel channel, NotificationMessage message) {
+        if (message.getRenderedContent() != null) {
+            return null;
+        }
+        try {
+            String rendered = templateRenderer.render(channel, message.getTemplateCode(), message.getTemplateData());
+            message.setRenderedContent(rendered);
+            renderedContentWriter.writeBack(message.getNotificationId(), rendered);
+            return null;
+        } catch (Exception e) {
+            log.error("Failed to render {} notification {}: {}", channel, message.getNotificationId(), e.getMessage());
+            return ProviderResponse.permanentFailure(
+                    "Failed to render template " + message.getTemplateCode(), "TEMPLATE_RENDER_ERROR", null);
+        }
+    }
+
+    /**
+     * Mark every delivered row with one JDBC batch UPDATE; each row keeps its own provider message id.
+     */
+    private void recordDelivered(List<NotificationBatchUpdates.Delivery> delivered) {
+        if (delivered.isEmpty()) {
+            return;
+        }
+
+        transactionTemplate.executeWithoutResult(
+                status -> notificationRepository.markDelivered(delivered, LocalDateTime.now()));
+    }
+}
@@ -1,20 +1,27 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.dto.ProviderResponse;
 import com.example.notification.model.entity.Notification;
+import com.example.notification.model.enums.ErrorType;
 import com.example.notification.model.enums.NotificationChannel;
-import com.example.notification.model.enums.NotificationStatus;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.repository.NotificationRepository;
+import com.example.notification.template.TemplateRenderer;
 import com.rabbitmq.client.Channel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpRejectAndDontRequeueException;
 import org.springframework.amqp.core.Message;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.amqp.support.AmqpHeaders;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
 
 /**
  * Abstract base class for notification workers.
@@ -26,90 +33,35 @@ public abstract class NotificationWorker {
 
     protected final NotificationRepository notificationRepository;
     protected final RetryHandler retryHandler;
+    protected final TemplateRenderer templateRenderer;
+    protected final RenderedContentWriter renderedContentWriter;
 
     /**
      * Process a notification message from the queue.
-     * This is the template method that defines the processing flow.
+     * This is the template method that defines the processing flow:
+     * claim the row, call the provider outside any transaction, then record the result in a short transaction.
      *
      * @param notificationMessage the notification message
      * @param message             the AMQP message
      * @param channel             the AMQP channel
      */
-    @Transactional
     public void processMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
         Long notificationId = notificationMessage.getNotificationId();
         log.info("Processing {} notification: {}", getNotificationChannel(), notificationId);
 
         try {
-            // Fetch notification from database
-            Notification notification = notificationRepository.findById(notificationId).orElse(null);
-
-            if (notification == null) {
-                log.error("Notification {} not found in database. Acknowledging message.", notificationId);
-                acknowledgeMessage(channel, message);
-                return;
-            }
-
-            // Update status to PROCESSING
-            notification.setStatus(NotificationStatus.PROCESSING);
-            notificationRepository.save(notification);
-
-            // Get the provider and send
-            NotificationProvider provider = getProvider();
-
-            if (provider == null || !provider.isEnabled()) {
-                log.warn("{} provider is not available. Moving to retry.", getNotificationChannel());
-                retryHandler.handleFailure(
-                        notification,
-                        notificationMessage,
-                        "Provider not available",
-                        "PROVIDER_UNAVAILABLE",
-                        com.example.notification.model.enums.ErrorType.RETRIABLE
-                );
-                acknowledgeMessage(channel, message);
-                return;
-            }
-
-            // Send the notification
-            ProviderResponse response = provider.send(notificationMessage);
-
-            if (response.isSuccess()) {
-                // Handle success
-                retryHandler.handleSuccess(
-                        notification,
-                        response.getMessageId(),
-                        response.getRawResponse()
-                );
-            } else {
-                // Handle failure
-                retryHandler.handleFailure(
-                        notification,
-                        notificationMessage,
-                        response.getErrorMessage(),
-                        response.getErrorCode(),
-                        response.getErrorType()
-                );
+            Notification notification = prepareToSend(notificationMessage);
+            if (notification != null) {
+                // Send the notification
+                recordResponse(notification, notificationMessage, getProvider().send(notificationMessage));
             }
 
             // Acknowledge the message
             acknowledgeMessage(channel, message);
 
         } catch (Exception e) {
-            log.error("Error processing {} notification {}: {}",
-                    getNotificationChannel(), notificationId, e.getMessage(), e);
-
             try {
-                // Try to update the notification record
-                Notification notification = notificationRepository.findById(notificationId).orElse(null);
-                if (notification != null) {
-                    retryHandler.handleFailure(
-                            notification,
-                            notificationMessage,
-                            e.getMessage(),
-                            "PROCESSING_ERROR",
-                            com.example.notification.model.enums.ErrorType.RETRIABLE
-                    );
-                }
+                recordError(notificationMessage, e);
 
                 // Acknowledge to prevent infinite redelivery
                 acknowledgeMessage(channel, message);
@@ -122,6 +74,203 @@ public abstract class NotificationWorker {
         }
     }
 
+    /**
+     * Same flow as {@link #processMessage}, but the provider call does not hold the listener thread.
+     * Returned from a {@code @RabbitListener} method, the future lets the container acknowledge the message
+     * when it completes, i.e. when the provider has answered and the result is recorded.
+     * If even the error cannot be recorded the future fails and the message is rejected to the DLQ.
+     */
+    public CompletableFuture<Void> processMessageAsync(NotificationMessage notificationMessage) {
+        Long notificationId = notificationMessage.getNotificationId();
+        log.info("Processing {} notification: {}", getNotificationChannel(), notificationId);
+
+        Notification notification;
+        CompletableFuture<ProviderResponse> send;
+        try {
+            notification = prepareToSend(notificationMessage);
+            if (notification == null) {
+                return CompletableFuture.completedFuture(null);
+            }
+            send = getProvider().sendAsync(notificationMessage);
+        } catch (Exception e) {
+            send = CompletableFuture.failedFuture(e);
+            notification = null;
+        }
+
+        Notification claimed = notification;
+        return send
+                .thenAccept(response -> recordResponse(claimed, notificationMessage, response))
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    try {
+                        recordError(notificationMessage, cause);
+                    } catch (Exception ex) {
+                        log.error("Failed to handle error for notification {}: {}", notificationId, ex.getMessage());
+                        throw new AmqpRejectAndDontRequeueException("Failed to handle error for notification "
+                                + notificationId, ex);
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * Claim the row, check the provider and render deferred content.
+     *
+     * @return the claimed notification ready to send, or null if there is nothing to send
+     *         (skipped, or the failure has already been recorded)
+     */
+    private Notification prepareToSend(NotificationMessage notificationMessage) {
+        Long notificationId = notificationMessage.getNotificationId();
+
+        // Claim the row in its own short statement; no transaction stays open while the provider is called.
+        // The outbox relay publishes at least once, so a finished or in-flight notification is never resent.
+        if (retryHandler.claimForProcessing(List.of(notificationId)).isEmpty()) {
+            log.info("Notification {} is missing, finished or being sent by another worker. Acknowledging message.",
+                    notificationId);
+            return null;
+        }
+
+        Notification notification = notificationRepository.findById(notificationId).orElse(null);
+        if (notification == null) {
+            log.error("Notification {} not found in database. Acknowledging message.", notificationId);
+            return null;
+        }
+
+        // Get the provider and send
+        NotificationProvider provider = getProvider();
+
+        if (provider == null || !provider.isEnabled()) {
+            log.warn("{} provider is not available. Moving to retry.", getNotificationChannel());
+            retryHandler.handleFailure(
+                    notification,
+                    notificationMessage,
+                    "Provider not available",
+                    "PROVIDER_UNAVAILABLE",
+                    ErrorType.RETRIABLE
+            );
+            return null;
+        }
+
+        // Render now if the request only enqueued the template code and data
+        if (notificationMessage.getRenderedContent() == null && !renderContent(notificationMessage)) {
+            retryHandler.handleFailure(
+                    notification,
+                    notificationMessage,
+                    "Failed to render template " + notificationMessage.getTemplateCode(),
+                    "TEMPLATE_RENDER_ERROR",
+                    ErrorType.PERMANENT
+            );
+            return null;
+        }
+
+        return notification;
+    }
+
+    private void recordResponse(Notification notification, NotificationMessage notificationMessage,
+                                ProviderResponse response) {
+        if (response.isSuccess()) {
+            // Handle success
+            retryHandler.handleSuccess(
+                    notification,
+                    response.getMessageId(),
+                    response.getRawResponse()
+            );
+        } else {
+            // Handle failure
+            retryHandler.handleFailure(
+                    notification,
+                    notificationMessage,
+                    response.getErrorMessage(),
+                    response.getErrorCode(),
+                    response.getErrorType()
+            );
+        }
+    }
+
+    private void recordError(NotificationMessage notificationMessage, Throwable e) {
+        Long notificationId = notificationMessage.getNotificationId();
+        log.error("Error processing {} notification {}: {}",
+                getNotificationChannel(), notificationId, e.getMessage(), e);
+
+        // Try to update the notification record
+        Notification notification = notificationRepository.findById(notificationId).orElse(null);
+        if (notification != null) {
+            retryHandler.handleFailure(
+                    notification,
+                    notificationMessage,
+                    e.getMessage(),
+                    "PROCESSING_ERROR",
+                    ErrorType.RETRIABLE
+            );
+        }
+    }
+
+    /**
+     * Process a batch of messages from a batch listener and acknowledge all of them with one ack.
+     * Per-notification failures are handled by the retry handler inside the batch; if the batch
+     * itself fails (e.g. the database is unreachable) the whole batch is rejected to the DLQ,
+     * as {@link #processMessage} does for a single message.
+     */
+    protected void processBatch(
+            List<org.springframework.messaging.Message<NotificationMessage>> messages,
+            Channel channel,
+            Consumer<List<NotificationMessage>> batchHandler) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        long lastDeliveryTag = messages.stream()
+                .mapToLong(m -> m.getHeaders().get(AmqpHeaders.DELIVERY_TAG, Long.class))
+                .max()
+                .getAsLong();
+        List<NotificationMessage> payloads = messages.stream()
+                .map(org.springframework.messaging.Message::getPayload)
+                .toList();
+
+        try {
+            batchHandler.accept(payloads);
+        } catch (Exception e) {
+            log.error("Error processing batch of {} {} notifications: {}",
+                    payloads.size(), getNotificationChannel(), e.getMessage(), e);
+            try {
+                channel.basicNack(lastDeliveryTag, true, false);
+            } catch (IOException ex) {
+                log.error("Failed to reject message batch: {}", ex.getMessage());
+            }
+            return;
+        }
+
+        try {
+            channel.basicAck(lastDeliveryTag, true);
+        } catch (IOException e) {
+            log.error("Failed to acknowledge message batch: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Render a deferred template into the message and store the result for audit in the background.
+     * A retry republishes the message with its content, so the template is rendered once per notification.
+     */
+    private boolean renderContent(NotificationMessage notificationMessage) {
+        String rendered;
+        try {
+            rendered = templateRenderer.render(
+                    getNotificationChannel(),
+                    notificationMessage.getTemplateCode(),
+                    notificationMessage.getTemplateData()
+            );
+        } catch (Exception e) {
+            log.error("Failed to render {} notification {}: {}",
+                    getNotificationChannel(), notificationMessage.getNotificationId(), e.getMessage());
+            return false;
+        }
+
+        notificationMessage.setRenderedContent(rendered);
+        renderedContentWriter.writeBack(notificationMessage.getNotificationId(), rendered);
+        return true;
+    }
+
     /**
      * Get the notification channel this worker handles.
      */
@@ -1,17 +1,21 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.provider.push.PushProvider;
 import com.example.notification.repository.NotificationRepository;
+import com.example.notification.template.TemplateRenderer;
 import com.rabbitmq.client.Channel;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.Message;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+
 /**
  * Worker for processing PUSH notifications.
  */
@@ -20,19 +24,25 @@ import org.springframework.stereotype.Component;
 public class PushWorker extends NotificationWorker {
 
     private final PushProvider pushProvider;
+    private final NotificationBatchProcessor batchProcessor;
 
     public PushWorker(
             NotificationRepository notificationRepository,
             RetryHandler retryHandler,
-            PushProvider pushProvider) {
-        super(notificationRepository, retryHandler);
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
+            PushProvider pushProvider,
+            NotificationBatchProcessor batchProcessor) {
+        super(notificationRepository, retryHandler, templateRenderer, renderedContentWriter);
         this.pushProvider = pushProvider;
+        this.batchProcessor = batchProcessor;
     }
 
-    @RabbitListener(queues = "notification.push.queue", containerFactory = "rabbitListenerContainerFactory")
-    public void onMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
-        log.debug("Received PUSH notification message: {}", notificationMessage.getNotificationId());
-        processMessage(notificationMessage, message, channel);
+    @RabbitListener(queues = "notification.push.queue", containerFactory = "pushListenerContainerFactory")
+    public void onMessages(List<Message<NotificationMessage>> messages, Channel channel) {
+        log.debug("Received batch of {} PUSH notification messages", messages.size());
+        processBatch(messages, channel,
+                payloads -> batchProcessor.process(NotificationChannel.PUSH, payloads, getProvider()));
     }
 
     @Override
@@ -1,17 +1,19 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.provider.sms.SmsProvider;
 import com.example.notification.repository.NotificationRepository;
-import com.rabbitmq.client.Channel;
+import com.example.notification.template.TemplateRenderer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Worker for processing SMS notifications.
  */
@@ -24,15 +26,18 @@ public class SmsWorker extends NotificationWorker {
     public SmsWorker(
             NotificationRepository notificationRepository,
             RetryHandler retryHandler,
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
             SmsProvider smsProvider) {
-        super(notificationRepository, retryHandler);
+        super(notificationRepository, retryHandler, templateRenderer, renderedContentWriter);
         this.smsProvider = smsProvider;
     }
 
-    @RabbitListener(queues = "notification.sms.queue", containerFactory = "rabbitListenerContainerFactory")
-    public void onMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
+    @RabbitListener(queues = "notification.sms.queue", containerFactory = "smsListenerContainerFactory")
+    public CompletableFuture<Void> onMessage(NotificationMessage notificationMessage) {
         log.debug("Received SMS notification message: {}", notificationMessage.getNotificationId());
-        processMessage(notificationMessage, message, channel);
+        // The container acknowledges the message when the Twilio response has been recorded
+        return processMessageAsync(notificationMessage);
     }
 
     @Override
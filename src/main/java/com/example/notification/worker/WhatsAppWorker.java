@@ -1,17 +1,19 @@
 package com.example.notification.worker;
 
+import com.example.notification.handler.RenderedContentWriter;
 import com.example.notification.handler.RetryHandler;
 import com.example.notification.model.dto.NotificationMessage;
 import com.example.notification.model.enums.NotificationChannel;
 import com.example.notification.provider.NotificationProvider;
 import com.example.notification.provider.whatsapp.WhatsAppProvider;
 import com.example.notification.repository.NotificationRepository;
-import com.rabbitmq.client.Channel;
+import com.example.notification.template.TemplateRenderer;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Worker for processing WHATSAPP notifications.
  */
@@ -24,15 +26,18 @@ public class WhatsAppWorker extends NotificationWorker {
     public WhatsAppWorker(
             NotificationRepository notificationRepository,
             RetryHandler retryHandler,
+            TemplateRenderer templateRenderer,
+            RenderedContentWriter renderedContentWriter,
             WhatsAppProvider whatsAppProvider) {
-        super(notificationRepository, retryHandler);
+        super(notificationRepository, retryHandler, templateRenderer, renderedContentWriter);
         this.whatsAppProvider = whatsAppProvider;
     }
 
-    @RabbitListener(queues = "notification.whatsapp.queue", containerFactory = "rabbitListenerContainerFactory")
-    public void onMessage(NotificationMessage notificationMessage, Message message, Channel channel) {
+    @RabbitListener(queues = "notification.whatsapp.queue", containerFactory = "whatsappListenerContainerFactory")
+    public CompletableFuture<Void> onMessage(NotificationMessage notificationMessage) {
         log.debug("Received WHATSAPP notification message: {}", notificationMessage.getNotificationId());
-        processMessage(notificationMessage, message, channel);
+        // The container acknowledges the message when the Twilio response has been recorded
+        return processMessageAsync(notificationMessage);
     }
 
     @Override
@@ -5,6 +5,7 @@ import com.example.common.dto.ApiSuccessResponse;
 import com.example.common.dto.ApiSuccessResponseCreator;
 import com.example.security.dto.JwtResponse;
 import com.example.security.dto.RefreshTokenRequest;
+import com.example.security.jwt.RefreshTokenClaims;
 import com.example.security.jwt.RefreshTokenService;
 import com.example.security.jwt.TokenService;
 import com.example.user.entity.User;
@@ -51,12 +52,13 @@ public class AuthController {
         log.info("Logged into /refresh method....");
         String refreshToken = request.refreshToken();
 
-        String email = refreshTokenService.validateAndGetEmail(refreshToken);
+        // Signature and expiry only; the Redis check happens atomically inside rotation
+        RefreshTokenClaims refreshClaims = refreshTokenService.parse(refreshToken);
 
-        User user = userService.getByEmail(email);
+        User user = userService.getByEmail(refreshClaims.email());
 
         JwtResponse jwtResponse =
-            tokenService.rotateTokens(refreshToken, user);
+            tokenService.rotateTokens(refreshClaims, user);
 
         return ResponseEntity.ok(
             responseCreator.buildResponse(
@@ -92,4 +94,27 @@ public class AuthController {
             )
         );
     }
+
+    @Operation(summary = "Logout from all devices", description = "Revoke every refresh token family of the user owning the given refresh token")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Logged out from all devices",
+            content = @Content(schema = @Schema(implementation = ApiSuccessResponse.class))),
+        @ApiResponse(responseCode = "401", description = "Invalid or expired refresh token",
+            content = @Content(schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @PostMapping("/logout-all")
+    public ResponseEntity<ApiSuccessResponse> logoutAll(@RequestBody RefreshTokenRequest request) {
+        RefreshTokenClaims refreshClaims = refreshTokenService.validate(request.refreshToken());
+
+        refreshTokenService.revokeAllForUser(refreshClaims.userId());
+
+        return ResponseEntity.ok(
+            responseCreator.buildResponse(
+                "Logged out from all devices",
+                true,
+                HttpStatus.OK,
+                null
+            )
+        );
+    }
 }
@@ -0,0 +1,35 @@
+package com.example.security.auth;
+
+import com.example.config.AppProperties;
+import com.example.security.jwt.JwkSetProvider;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Duration;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/auth/.well-known")
+@RequiredArgsConstructor
+@Tag(name = "Authentication", description = "Authentication and token management endpoints")
+public class JwksController {
+
+    private final JwkSetProvider jwkSetProvider;
+    private final AppProperties appProperties;
+
+    // Plain RFC 7517 document (not wrapped in ApiSuccessResponse) so standard JWT libraries can consume it
+    @Operation(summary = "JSON Web Key Set", description = "Public keys for verifying access tokens signed with ES256 or EdDSA")
+    @GetMapping("/jwks.json")
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl
+                .maxAge(Duration.ofSeconds(appProperties.getJwt().getJwksMaxAgeSeconds()))
+                .cachePublic())
+            .body(jwkSetProvider.getJwkSet());
+    }
+}
@@ -53,16 +53,13 @@ public class EmailOtpAuthService {
     }
 
     public JwtResponse verifyOtp(String email, String otp) {
-        if (!otpStore.exists(email)) {
-            throw new InvalidOtpException("OTP has expired or does not exist. Please request a new one.");
+        switch (otpStore.consume(email, otp)) {
+            case VERIFIED -> { }
+            case EXPIRED -> throw new InvalidOtpException("OTP has expired or does not exist. Please request a new one.");
+            case ATTEMPTS_EXCEEDED -> throw new InvalidOtpException("Too many invalid attempts. Please request a new OTP.");
+            default -> throw new InvalidOtpException("Invalid OTP. Please check and try again.");
         }
 
-        if (!otpStore.verify(email, otp)) {
-            throw new InvalidOtpException("Invalid OTP. Please check and try again.");
-        }
-
-        otpStore.delete(email);
-
         // mark that user as Verified
         userService.markUserAsVerified(email);
 
@@ -0,0 +1,8 @@
+package com.example.security.exception;
+
+public class RefreshTokenReuseException extends InvalidRefreshTokenException {
+
+    public RefreshTokenReuseException(String msg) {
+        super(msg);
+    }
+}
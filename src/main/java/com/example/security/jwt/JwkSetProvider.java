@@ -0,0 +1,39 @@
+package com.example.security.jwt;
+
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import java.security.PublicKey;
+import java.util.List;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * Public half of the access key ring as a JSON Web Key Set.
+ * Built once at startup; HMAC rings publish an empty set so secrets never leave the app.
+ */
+@Service
+public class JwkSetProvider {
+
+    private final Map<String, Object> jwkSet;
+
+    public JwkSetProvider(JwtSignKeyProvider jwtSignKeyProvider) {
+        List<PublicJwk<?>> keys = jwtSignKeyProvider.getAccessKeyRing()
+            .verificationKeys()
+            .entrySet()
+            .stream()
+            .filter(entry -> entry.getValue() instanceof PublicKey)
+            .sorted(Map.Entry.comparingByKey())
+            .<PublicJwk<?>>map(entry -> Jwks.builder()
+                .key((PublicKey) entry.getValue())
+                .id(entry.getKey())
+                .publicKeyUse("sig")
+                .build())
+            .toList();
+
+        this.jwkSet = Map.of("keys", keys);
+    }
+
+    public Map<String, Object> getJwkSet() {
+        return jwkSet;
+    }
+}
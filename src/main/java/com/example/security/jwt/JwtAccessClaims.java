@@ -0,0 +1,10 @@
+package com.example.security.jwt;
+
+import java.time.Instant;
+
+public record JwtAccessClaims(
+    Long userId,
+    String email,
+    String role,
+    Instant expiresAt
+) {}
@@ -1,7 +1,6 @@
 package com.example.security.jwt;
 
 import com.example.security.principal.SecurityUser;
-import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -22,21 +21,25 @@ public class JwtAuthenticationProvider {
 
     private final JwtTokenFromAuthHeaderExtractor jwtTokenFromAuthHeaderExtractor;
     private final JwtClaimExtractor jwtClaimExtractor;
+    private final VerifiedTokenCache verifiedTokenCache;
 
     public Authentication get(final HttpServletRequest httpRequest) {
         String jwtToken = jwtTokenFromAuthHeaderExtractor.extract(httpRequest);
 
         try {
-            // Validate token expiration
-            if (jwtClaimExtractor.isTokenExpired(jwtToken)) {
-                throw new ExpiredJwtException(null, null, "JWT token has expired");
+            SecurityUser cachedUser = verifiedTokenCache.get(jwtToken);
+            if (cachedUser != null) {
+                return new UsernamePasswordAuthenticationToken(cachedUser, null, cachedUser.getAuthorities());
             }
 
-            String userEmail = jwtClaimExtractor.extractEmail(jwtToken);
-            Long userId = jwtClaimExtractor.extractUserId(jwtToken);
-            String userRole = jwtClaimExtractor.extractRole(jwtToken);
+            // Signature and expiration are verified in a single parse
+            JwtAccessClaims claims = jwtClaimExtractor.verify(jwtToken);
 
-            return getUsernamePasswordAuthenticationToken(userId, userEmail, userRole);
+            UsernamePasswordAuthenticationToken authentication =
+                getUsernamePasswordAuthenticationToken(claims.userId(), claims.email(), claims.role());
+            verifiedTokenCache.put(jwtToken, (SecurityUser) authentication.getPrincipal(), claims.expiresAt());
+
+            return authentication;
 
         } catch (Exception exception) {
             log.debug("Authentication failed: {}", exception.getMessage());
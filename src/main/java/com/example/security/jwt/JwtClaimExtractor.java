@@ -2,29 +2,61 @@ package com.example.security.jwt;
 
 import com.example.security.exception.JwtTokenHasNoUserEmailException;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.Date;
 import java.util.Optional;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class JwtClaimExtractor {
 
-    private final JwtSignKeyProvider jwtSignKeyProvider;
+    // JwtParser is immutable and thread-safe, so one instance serves every request
+    private final JwtParser jwtParser;
+
+    public JwtClaimExtractor(JwtSignKeyProvider jwtSignKeyProvider) {
+        this.jwtParser = Jwts.parser()
+            .keyLocator(jwtSignKeyProvider.getAccessKeyRing())
+            .build();
+    }
+
+    /**
+     * Parses and verifies the token once and returns every claim the authentication path needs.
+     */
+    public JwtAccessClaims verify(final String jwtToken) {
+        Claims claims;
+        try {
+            claims = extractAllClaims(jwtToken);
+        } catch (ExpiredJwtException ex) {
+            throw ex;
+        } catch (JwtException | IllegalArgumentException ex) {
+            throw new JwtTokenHasNoUserEmailException("Invalid JWT token");
+        }
+
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            // Tokens without expiration are never accepted
+            throw new ExpiredJwtException(null, claims, "JWT token has no expiration date");
+        }
+
+        return new JwtAccessClaims(
+            userIdFrom(claims),
+            emailFrom(claims),
+            roleFrom(claims),
+            expiration.toInstant()
+        );
+    }
 
     public String extractEmail(final String jwtToken) {
         try {
-            return Optional.ofNullable(extractAllClaims(jwtToken).getSubject())
-                .filter(StringUtils::hasText)
-                .filter(this::isValidEmailFormat)
-                .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing email in JWT token"));
+            return emailFrom(extractAllClaims(jwtToken));
         } catch (JwtTokenHasNoUserEmailException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -34,9 +66,7 @@ public class JwtClaimExtractor {
 
     public Long extractUserId(final String jwtToken) {
         try {
-            return Optional.ofNullable(extractAllClaims(jwtToken).get("userId", Long.class))
-                .filter(id -> id > 0)
-                .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing userId in JWT token"));
+            return userIdFrom(extractAllClaims(jwtToken));
         } catch (JwtTokenHasNoUserEmailException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -46,9 +76,7 @@ public class JwtClaimExtractor {
 
     public String extractRole(final String jwtToken) {
         try {
-            return Optional.ofNullable(extractAllClaims(jwtToken).get("role", String.class))
-                .filter(StringUtils::hasText)
-                .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing role in JWT token"));
+            return roleFrom(extractAllClaims(jwtToken));
         } catch (JwtTokenHasNoUserEmailException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -81,6 +109,33 @@ public class JwtClaimExtractor {
         }
     }
 
+    private String emailFrom(Claims claims) {
+        return Optional.ofNullable(claims.getSubject())
+            .filter(StringUtils::hasText)
+            .filter(this::isValidEmailFormat)
+            .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing email in JWT token"));
+    }
+
+    private Long userIdFrom(Claims claims) {
+        try {
+            return Optional.ofNullable(claims.get("userId", Long.class))
+                .filter(id -> id > 0)
+                .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing userId in JWT token"));
+        } catch (JwtException ex) {
+            throw new JwtTokenHasNoUserEmailException("Invalid or missing userId in JWT token");
+        }
+    }
+
+    private String roleFrom(Claims claims) {
+        try {
+            return Optional.ofNullable(claims.get("role", String.class))
+                .filter(StringUtils::hasText)
+                .orElseThrow(() -> new JwtTokenHasNoUserEmailException("Invalid or missing role in JWT token"));
+        } catch (JwtException ex) {
+            throw new JwtTokenHasNoUserEmailException("Invalid or missing role in JWT token");
+        }
+    }
+
     private boolean isValidEmailFormat(String email) {
         return email != null &&
             email.contains("@") &&
@@ -91,9 +146,7 @@ public class JwtClaimExtractor {
     }
 
     private Claims extractAllClaims(final String jwtToken) {
-        return Jwts.parser()
-            .verifyWith(jwtSignKeyProvider.get())
-            .build()
+        return jwtParser
             .parseSignedClaims(jwtToken)
             .getPayload();
     }
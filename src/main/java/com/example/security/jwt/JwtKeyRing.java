@@ -0,0 +1,55 @@
+package com.example.security.jwt;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.security.InvalidKeyException;
+import java.security.Key;
+import java.util.Map;
+
+/**
+ * Immutable set of JWT keys identified by {@code kid}.
+ * Tokens are signed with the current key; verification resolves the key from the token header.
+ */
+public final class JwtKeyRing extends LocatorAdapter<Key> {
+
+    private final String currentKeyId;
+    private final Key signingKey;
+    private final Map<String, Key> verificationKeys;
+
+    public JwtKeyRing(String currentKeyId, Key signingKey, Map<String, ? extends Key> verificationKeys) {
+        if (!verificationKeys.containsKey(currentKeyId)) {
+            throw new IllegalArgumentException("Key ring has no verification key for current kid: " + currentKeyId);
+        }
+        this.currentKeyId = currentKeyId;
+        this.signingKey = signingKey;
+        this.verificationKeys = Map.copyOf(verificationKeys);
+    }
+
+    public String currentKeyId() {
+        return currentKeyId;
+    }
+
+    public Key signingKey() {
+        return signingKey;
+    }
+
+    public Map<String, Key> verificationKeys() {
+        return verificationKeys;
+    }
+
+    @Override
+    protected Key locate(JwsHeader header) {
+        String keyId = header.getKeyId();
+
+        // Tokens issued before kid headers were introduced
+        if (keyId == null) {
+            return verificationKeys.get(currentKeyId);
+        }
+
+        Key key = verificationKeys.get(keyId);
+        if (key == null) {
+            throw new InvalidKeyException("Unknown JWT key id: " + keyId);
+        }
+        return key;
+    }
+}
@@ -3,23 +3,106 @@ package com.example.security.jwt;
 import com.example.config.AppProperties;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
-import lombok.RequiredArgsConstructor;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
 import javax.crypto.SecretKey;
 
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class JwtSignKeyProvider {
-    private final AppProperties appProperties;
 
-    public SecretKey get() {
-        byte[] keyBytes = Decoders.BASE64.decode(appProperties.getJwt().getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
+    private final JwtKeyRing accessKeyRing;
+    private final JwtKeyRing refreshKeyRing;
+
+    public JwtSignKeyProvider(AppProperties appProperties) {
+        AppProperties.Jwt jwt = appProperties.getJwt();
+
+        this.accessKeyRing = switch (jwt.getAlgorithm()) {
+            case HS256 -> hmacKeyRing(jwt.getKeyId(), required(jwt.getSecret(), "jwt.secret"), jwt.getPreviousKeys());
+            case ES256 -> asymmetricKeyRing("EC", jwt);
+            case EdDSA -> asymmetricKeyRing("Ed25519", jwt);
+        };
+        // Refresh tokens are only ever verified by this app, so they stay on HMAC
+        this.refreshKeyRing = hmacKeyRing(jwt.getRefreshKeyId(), jwt.getRefreshSecret(), jwt.getPreviousRefreshKeys());
+
+        log.info("JWT key rings loaded. Access {} kid: {} ({} keys), refresh kid: {} ({} keys)",
+            jwt.getAlgorithm(), accessKeyRing.currentKeyId(), accessKeyRing.verificationKeys().size(),
+            refreshKeyRing.currentKeyId(), refreshKeyRing.verificationKeys().size());
     }
 
     public SecretKey getRefresh() {
-        byte[] keyBytes = Decoders.BASE64.decode(appProperties.getJwt().getRefreshSecret());
+        return (SecretKey) refreshKeyRing.signingKey();
+    }
+
+    public JwtKeyRing getAccessKeyRing() {
+        return accessKeyRing;
+    }
+
+    public JwtKeyRing getRefreshKeyRing() {
+        return refreshKeyRing;
+    }
+
+    private static JwtKeyRing hmacKeyRing(String currentKeyId, String currentSecret, Map<String, String> previousSecrets) {
+        Map<String, SecretKey> keys = new HashMap<>();
+        previousSecrets.forEach((keyId, secret) -> keys.put(keyId, hmacKey(secret)));
+
+        SecretKey currentKey = hmacKey(currentSecret);
+        keys.put(currentKeyId, currentKey);
+
+        return new JwtKeyRing(currentKeyId, currentKey, keys);
+    }
+
+    private static SecretKey hmacKey(String base64Secret) {
+        byte[] keyBytes = Decoders.BASE64.decode(base64Secret);
         return Keys.hmacShaKeyFor(keyBytes);
     }
+
+    private static JwtKeyRing asymmetricKeyRing(String keyAlgorithm, AppProperties.Jwt jwt) {
+        try {
+            KeyFactory keyFactory = KeyFactory.getInstance(keyAlgorithm);
+
+            Map<String, PublicKey> keys = new HashMap<>();
+            for (Map.Entry<String, String> previous : jwt.getPreviousPublicKeys().entrySet()) {
+                keys.put(previous.getKey(), publicKey(keyFactory, previous.getValue()));
+            }
+
+            PrivateKey privateKey = keyFactory.generatePrivate(
+                new PKCS8EncodedKeySpec(decodePem(required(jwt.getPrivateKey(), "jwt.private-key")))
+            );
+            keys.put(jwt.getKeyId(), publicKey(keyFactory, required(jwt.getPublicKey(), "jwt.public-key")));
+
+            return new JwtKeyRing(jwt.getKeyId(), privateKey, keys);
+        } catch (GeneralSecurityException | IllegalArgumentException ex) {
+            throw new IllegalStateException("Failed to load " + jwt.getAlgorithm() + " JWT key pair", ex);
+        }
+    }
+
+    private static PublicKey publicKey(KeyFactory keyFactory, String encoded) throws GeneralSecurityException {
+        return keyFactory.generatePublic(new X509EncodedKeySpec(decodePem(encoded)));
+    }
+
+    // Accepts a full PEM block or the bare base64 body
+    private static byte[] decodePem(String pem) {
+        String base64 = pem
+            .replaceAll("-----(BEGIN|END) [A-Z ]+-----", "")
+            .replaceAll("\\s", "");
+        return Decoders.BASE64.decode(base64);
+    }
+
+    private static String required(String value, String property) {
+        if (!StringUtils.hasText(value)) {
+            throw new IllegalStateException(property + " must be configured for the selected JWT algorithm");
+        }
+        return value;
+    }
 }
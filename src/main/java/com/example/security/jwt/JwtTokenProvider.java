@@ -15,6 +15,8 @@ import org.springframework.stereotype.Service;
 @Service
 @RequiredArgsConstructor
 public class JwtTokenProvider {
+    static final String FAMILY_ID_CLAIM = "fid";
+
     private final JwtSignKeyProvider jwtSignKeyProvider;
     private final AppProperties appProperties;
 
@@ -23,12 +25,14 @@ public class JwtTokenProvider {
         try {
             Instant now = Instant.now();
             Instant expiry = now.plusMillis(appProperties.getJwt().getExpiration());
+            JwtKeyRing keyRing = jwtSignKeyProvider.getAccessKeyRing();
             return Jwts.builder()
+                .header().keyId(keyRing.currentKeyId()).and()
                 .claims(extraClaims)
                 .subject(email)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry))
-                .signWith(jwtSignKeyProvider.get())
+                .signWith(keyRing.signingKey())
                 .compact();
         } catch (JwtException exception) {
             log.error("JWT token creation failed for user: {}", email, exception);
@@ -36,15 +40,21 @@ public class JwtTokenProvider {
         }
     }
 
-    public String generateRefreshToken(final String email) {
+    public String generateRefreshToken(final RefreshTokenClaims refreshClaims) {
+        String email = refreshClaims.email();
         try {
             Instant now = Instant.now();
             Instant expiry = now.plusMillis(appProperties.getJwt().getRefreshExpiration());
+            JwtKeyRing keyRing = jwtSignKeyProvider.getRefreshKeyRing();
             return Jwts.builder()
+                .header().keyId(keyRing.currentKeyId()).and()
+                .id(refreshClaims.jti())
+                .claim(FAMILY_ID_CLAIM, refreshClaims.familyId())
+                .claim("userId", refreshClaims.userId())
                 .subject(email)
                 .issuedAt(Date.from(now))
                 .expiration(Date.from(expiry))
-                .signWith(jwtSignKeyProvider.getRefresh())
+                .signWith(keyRing.signingKey())
                 .compact();
         } catch (JwtException exception) {
             log.error("JWT refresh token creation failed for user: {}", email, exception);
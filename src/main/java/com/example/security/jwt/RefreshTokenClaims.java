@@ -0,0 +1,12 @@
+package com.example.security.jwt;
+
+/**
+ * Verified contents of a refresh token. {@code jti} identifies this token, {@code familyId}
+ * the login session it was rotated from.
+ */
+public record RefreshTokenClaims(
+    String jti,
+    String familyId,
+    Long userId,
+    String email
+) {}
@@ -0,0 +1,8 @@
+package com.example.security.jwt;
+
+public enum RefreshTokenRotation {
+    ROTATED,
+    INVALID,
+    // The presented token was already rotated: it has leaked or a client replayed it
+    REUSED
+}
@@ -2,54 +2,174 @@ package com.example.security.jwt;
 
 import com.example.config.AppProperties;
 import com.example.security.exception.InvalidRefreshTokenException;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import java.util.concurrent.TimeUnit;
-import lombok.RequiredArgsConstructor;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+/**
+ * Refresh tokens are indexed by their {@code jti}: {@code refresh:<jti>} holds the token family,
+ * and {@code refresh:user:<userId>} maps each active family to its current jti and that token's expiry,
+ * so every session of a user can be revoked without scanning the keyspace.
+ */
+@Slf4j
 @Service
-@RequiredArgsConstructor
 public class RefreshTokenService {
 
-    private final JwtSignKeyProvider jwtSignKeyProvider;
+    private final JwtParser refreshTokenParser;
     private final AppProperties appProperties;
     private final RedisTemplate<String, String> redisTemplate;
 
     private static final String PREFIX = "refresh:";
+    private static final String USER_PREFIX = "refresh:user:";
 
-    public void store(String refreshToken, String email) {
-        redisTemplate.opsForValue().set(
-            PREFIX + refreshToken,
-            email,
-            appProperties.getJwt().getRefreshExpiration(),
-            TimeUnit.MILLISECONDS
+    private static final RedisScript<Long> STORE_SCRIPT = RedisScript.of(
+        new ClassPathResource("redis/store-refresh-token.lua"), Long.class
+    );
+
+    private static final RedisScript<Long> ROTATE_SCRIPT = RedisScript.of(
+        new ClassPathResource("redis/rotate-refresh-token.lua"), Long.class
+    );
+
+    public RefreshTokenService(JwtSignKeyProvider jwtSignKeyProvider,
+                               AppProperties appProperties,
+                               RedisTemplate<String, String> redisTemplate) {
+        this.refreshTokenParser = Jwts.parser()
+            .keyLocator(jwtSignKeyProvider.getRefreshKeyRing())
+            .build();
+        this.appProperties = appProperties;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Stores the token and indexes its family in one script call, which also drops families whose
+     * token has expired so the per-user index cannot outgrow the user's live sessions.
+     */
+    public void store(RefreshTokenClaims refreshClaims) {
+        Long pruned = redisTemplate.execute(
+            STORE_SCRIPT,
+            List.of(PREFIX + refreshClaims.jti(), USER_PREFIX + refreshClaims.userId()),
+            refreshClaims.familyId(),
+            refreshClaims.jti(),
+            String.valueOf(appProperties.getJwt().getRefreshExpiration()),
+            String.valueOf(System.currentTimeMillis())
         );
+
+        if (pruned != null && pruned > 0) {
+            log.debug("Pruned {} expired refresh token families for user {}", pruned, refreshClaims.userId());
+        }
     }
 
-    public String validateAndGetEmail(String refreshToken) {
+    /**
+     * Verifies the signature and expiry of a refresh token without touching Redis.
+     */
+    public RefreshTokenClaims parse(String refreshToken) {
         try {
-            var claims = Jwts.parser()
-                .verifyWith(jwtSignKeyProvider.getRefresh())
-                .build()
+            Claims claims = refreshTokenParser
                 .parseSignedClaims(refreshToken)
                 .getPayload();
 
-            String email = claims.getSubject();
+            String jti = claims.getId();
+            String familyId = claims.get(JwtTokenProvider.FAMILY_ID_CLAIM, String.class);
+            Long userId = claims.get("userId", Long.class);
 
-            String stored = redisTemplate.opsForValue().get(PREFIX + refreshToken);
-            if (stored == null || !stored.equals(email)) {
+            if (!StringUtils.hasText(jti) || !StringUtils.hasText(familyId) || userId == null) {
                 throw new InvalidRefreshTokenException("Refresh token invalid or expired");
             }
 
-            return email;
-        }catch (Exception ex) {
+            return new RefreshTokenClaims(jti, familyId, userId, claims.getSubject());
+        } catch (JwtException | IllegalArgumentException ex) {
             throw new InvalidRefreshTokenException("Refresh token invalid or expired");
         }
     }
 
+    public RefreshTokenClaims validate(String refreshToken) {
+        RefreshTokenClaims refreshClaims = parse(refreshToken);
+
+        String storedFamilyId = redisTemplate.opsForValue().get(PREFIX + refreshClaims.jti());
+        if (storedFamilyId == null || !storedFamilyId.equals(refreshClaims.familyId())) {
+            throw new InvalidRefreshTokenException("Refresh token invalid or expired");
+        }
+
+        return refreshClaims;
+    }
+
+    /**
+     * Replaces {@code current} with {@code next} in a single atomic round trip.
+     */
+    public RefreshTokenRotation rotate(RefreshTokenClaims current, RefreshTokenClaims next) {
+        Long result = redisTemplate.execute(
+            ROTATE_SCRIPT,
+            List.of(PREFIX + current.jti(), PREFIX + next.jti(), USER_PREFIX + current.userId()),
+            current.familyId(),
+            next.jti(),
+            String.valueOf(appProperties.getJwt().getRefreshExpiration()),
+            current.jti(),
+            String.valueOf(System.currentTimeMillis())
+        );
+
+        if (result == null || result == 0) {
+            return RefreshTokenRotation.INVALID;
+        }
+        return result > 0 ? RefreshTokenRotation.ROTATED : RefreshTokenRotation.REUSED;
+    }
+
     public void invalidate(String refreshToken) {
-        redisTemplate.delete(PREFIX + refreshToken);
+        RefreshTokenClaims refreshClaims;
+        try {
+            refreshClaims = parse(refreshToken);
+        } catch (InvalidRefreshTokenException ex) {
+            // Nothing is stored for tokens we cannot read
+            return;
+        }
+        invalidate(refreshClaims);
+    }
+
+    public void invalidate(RefreshTokenClaims refreshClaims) {
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.delete(PREFIX + refreshClaims.jti());
+                ops.opsForHash().delete(USER_PREFIX + refreshClaims.userId(), refreshClaims.familyId());
+                return null;
+            }
+        });
     }
-}
 
+    /**
+     * Revokes every active session of the user, e.g. for "logout everywhere".
+     */
+    public void revokeAllForUser(Long userId) {
+        String userKey = USER_PREFIX + userId;
+
+        List<String> keys = new ArrayList<>();
+        for (Object entry : redisTemplate.opsForHash().values(userKey)) {
+            keys.add(PREFIX + indexedJti(entry.toString()));
+        }
+        keys.add(userKey);
+
+        redisTemplate.delete(keys);
+        log.info("Revoked {} refresh token families for user {}", keys.size() - 1, userId);
+    }
+
+    /**
+     * Index values are {@code <jti>:<expires at millis>}; jti values are Base64url, so never contain a colon.
+     */
+    private static String indexedJti(String entry) {
+        int separator = entry.indexOf(':');
+        return separator < 0 ? entry : entry.substring(0, separator);
+    }
+}
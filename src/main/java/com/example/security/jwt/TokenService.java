@@ -1,43 +1,85 @@
 package com.example.security.jwt;
 
 import com.example.security.dto.JwtResponse;
+import com.example.security.exception.InvalidRefreshTokenException;
+import com.example.security.exception.RefreshTokenReuseException;
 import com.example.user.entity.User;
+import java.security.SecureRandom;
+import java.util.Base64;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class TokenService {
 
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+
     private final JwtTokenProvider jwtTokenProvider;
     private final RefreshTokenService refreshTokenService;
 
     public JwtResponse issueTokens(User user) {
+        // Every login starts a new refresh token family
+        return issueTokens(user, newTokenId());
+    }
 
-        Map<String, Object> claims = Map.of(
-            "userId", user.getId(),
-            "role", user.getRole().authority()
-        );
+    /**
+     * Issues a new token pair in the same family and atomically retires the presented refresh token.
+     * A replayed token is rejected as reused but the family stays alive: under client retries the replay
+     * is usually a duplicate of the request that won the rotation, whose new pair is still valid.
+     */
+    public JwtResponse rotateTokens(RefreshTokenClaims current, User user) {
+
+        RefreshTokenClaims next =
+            new RefreshTokenClaims(newTokenId(), current.familyId(), user.getId(), user.getEmail());
 
-        String accessToken =
-            jwtTokenProvider.generateToken(claims, user.getEmail());
+        RefreshTokenRotation rotation = refreshTokenService.rotate(current, next);
+
+        switch (rotation) {
+            case ROTATED -> {
+                return new JwtResponse(accessToken(user), jwtTokenProvider.generateRefreshToken(next));
+            }
+            case REUSED -> {
+                log.warn("Refresh token reuse detected for user {}, token family {}", user.getId(), current.familyId());
+                throw new RefreshTokenReuseException("Refresh token already used");
+            }
+            default -> throw new InvalidRefreshTokenException("Refresh token invalid or expired");
+        }
+    }
+
+    private JwtResponse issueTokens(User user, String familyId) {
+
+        RefreshTokenClaims refreshClaims =
+            new RefreshTokenClaims(newTokenId(), familyId, user.getId(), user.getEmail());
 
         String refreshToken =
-            jwtTokenProvider.generateRefreshToken(user.getEmail());
+            jwtTokenProvider.generateRefreshToken(refreshClaims);
 
-        refreshTokenService.store(refreshToken, user.getEmail());
+        refreshTokenService.store(refreshClaims);
 
         return new JwtResponse(
-            accessToken,
+            accessToken(user),
             refreshToken
         );
     }
 
-    public JwtResponse rotateTokens(String oldRefreshToken, User user) {
+    private String accessToken(User user) {
+
+        Map<String, Object> claims = Map.of(
+            "userId", user.getId(),
+            "role", user.getRole().authority()
+        );
 
-        refreshTokenService.invalidate(oldRefreshToken);
+        return jwtTokenProvider.generateToken(claims, user.getEmail());
+    }
 
-        return issueTokens(user);
+    // 128 random bits, base64url: 22 characters
+    private static String newTokenId() {
+        byte[] bytes = new byte[16];
+        SECURE_RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
     }
 }
@@ -0,0 +1,111 @@
+package com.example.security.jwt;
+
+import com.example.config.AppProperties;
+import com.example.security.principal.SecurityUser;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Optional in-process cache of already verified access tokens.
+ * Keyed by a SHA-256 digest of the token so raw bearer tokens are never held in memory.
+ * Every entry expires at the token's own {@code exp}, so a cached token is never accepted past its expiry.
+ */
+@Slf4j
+@Component
+public class VerifiedTokenCache {
+
+    private static final String CACHE_NAME = "jwt.verified.tokens";
+
+    private final Cache<String, CachedPrincipal> cache;
+
+    public VerifiedTokenCache(AppProperties appProperties, MeterRegistry meterRegistry) {
+        AppProperties.TokenCache config = appProperties.getJwt().getTokenCache();
+
+        if (!config.isEnabled()) {
+            this.cache = null;
+            log.info("Verified token cache is disabled");
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+            .maximumSize(config.getMaxSize())
+            .expireAfter(new TokenExpiry())
+            .recordStats()
+            .build();
+
+        // Exposes hit, miss, eviction and size metrics
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+
+        log.info("Verified token cache enabled with max size {}", config.getMaxSize());
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public SecurityUser get(String jwtToken) {
+        if (cache == null) {
+            return null;
+        }
+
+        CachedPrincipal cached = cache.getIfPresent(digest(jwtToken));
+        if (cached == null) {
+            return null;
+        }
+
+        // Guards against drift between the cache ticker and wall-clock time
+        if (!cached.expiresAt().isAfter(Instant.now())) {
+            return null;
+        }
+
+        return cached.user();
+    }
+
+    public void put(String jwtToken, SecurityUser user, Instant expiresAt) {
+        if (cache == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        cache.put(digest(jwtToken), new CachedPrincipal(user, expiresAt));
+    }
+
+    private static String digest(String jwtToken) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                .digest(jwtToken.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().withoutPadding().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private record CachedPrincipal(SecurityUser user, Instant expiresAt) {}
+
+    private static final class TokenExpiry implements Expiry<String, CachedPrincipal> {
+
+        @Override
+        public long expireAfterCreate(String key, CachedPrincipal value, long currentTime) {
+            return Math.max(0, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, CachedPrincipal value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -48,7 +48,7 @@ public class MagicLinkAuthService {
     }
 
     public JwtResponse verifyMagicLink(String token) {
-        String email = magicLinkStore.getEmailByToken(token);
+        String email = magicLinkStore.consumeToken(token);
 
         if (email == null) {
             throw new InvalidMagicLinkTokenException(
@@ -56,8 +56,6 @@ public class MagicLinkAuthService {
             );
         }
 
-        magicLinkStore.delete(token);
-
         // mark user as verified
         userService.markUserAsVerified(email);
 
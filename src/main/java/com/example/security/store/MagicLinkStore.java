@@ -35,30 +35,23 @@ public class MagicLinkStore {
         return token;
     }
 
-    public String getEmailByToken(String token) {
+    /**
+     * Returns the email bound to the token and removes it in the same GETDEL call,
+     * so concurrent clicks on one link can never both succeed.
+     */
+    public String consumeToken(String token) {
         String key = PREFIX + token;
-        String email = redisTemplate.opsForValue().get(key);
+        String email = redisTemplate.opsForValue().getAndDelete(key);
 
         if (email == null) {
             log.debug("No magic link found for token");
             return null;
         }
 
-        log.debug("Magic link token found for email: {}", email);
+        log.debug("Magic link token consumed for email: {}", email);
         return email;
     }
 
-    public void delete(String token) {
-        String key = PREFIX + token;
-        redisTemplate.delete(key);
-        log.debug("Magic link token deleted");
-    }
-
-    public boolean exists(String token) {
-        String key = PREFIX + token;
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
-    }
-
     public String buildMagicLinkUrl(String token) {
         return UriComponentsBuilder
             .fromHttpUrl(appProperties.getFrontend().getBaseUrl())
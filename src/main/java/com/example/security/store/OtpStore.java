@@ -5,10 +5,16 @@ import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.stereotype.Component;
 
 @Slf4j
@@ -20,52 +26,60 @@ public class OtpStore {
     private final AppProperties appProperties;
 
     private static final String PREFIX = "email:otp:";
+    private static final String ATTEMPTS_PREFIX = "email:otp:attempts:";
     private static final SecureRandom SECURE_RANDOM = new SecureRandom();
 
+    private static final RedisScript<Long> CONSUME_SCRIPT = RedisScript.of(
+        new ClassPathResource("redis/consume-otp.lua"), Long.class
+    );
+
     public String generateAndStore(String email) {
         String otp = generateOtp();
         String hashedOtp = hashOtp(otp);
 
-        String key = PREFIX + email.toLowerCase();
+        String normalizedEmail = email.toLowerCase();
         long ttlMinutes = appProperties.getOtp().getExpirationMinutes();
 
-        redisTemplate.opsForValue().set(key, hashedOtp, ttlMinutes, TimeUnit.MINUTES);
+        // A fresh OTP gets a fresh attempt budget: both writes land together or not at all
+        redisTemplate.execute(new SessionCallback<List<Object>>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> List<Object> execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                ops.multi();
+                ops.delete(ATTEMPTS_PREFIX + normalizedEmail);
+                ops.opsForValue().set(PREFIX + normalizedEmail, hashedOtp, ttlMinutes, TimeUnit.MINUTES);
+                return ops.exec();
+            }
+        });
 
         log.debug("OTP stored for email: {}, TTL: {} minutes", email, ttlMinutes);
 
         return otp;
     }
 
-    public boolean verify(String email, String otp) {
-        String key = PREFIX + email.toLowerCase();
-        String storedHash = redisTemplate.opsForValue().get(key);
-
-        if (storedHash == null) {
-            log.debug("No OTP found for email: {}", email);
-            return false;
-        }
-
-        String providedHash = hashOtp(otp);
-        boolean matches = storedHash.equals(providedHash);
-
-        if (matches) {
-            log.debug("OTP verified successfully for email: {}", email);
-        } else {
-            log.debug("OTP verification failed for email: {}", email);
-        }
-
-        return matches;
-    }
-
-    public void delete(String email) {
-        String key = PREFIX + email.toLowerCase();
-        redisTemplate.delete(key);
-        log.debug("OTP deleted for email: {}", email);
-    }
-
-    public boolean exists(String email) {
-        String key = PREFIX + email.toLowerCase();
-        return Boolean.TRUE.equals(redisTemplate.hasKey(key));
+    /**
+     * Compares, consumes and counts failed attempts in a single atomic Redis call.
+     */
+    public OtpVerification consume(String email, String otp) {
+        String normalizedEmail = email.toLowerCase();
+
+        Long result = redisTemplate.execute(
+            CONSUME_SCRIPT,
+            List.of(PREFIX + normalizedEmail, ATTEMPTS_PREFIX + normalizedEmail),
+            hashOtp(otp),
+            String.valueOf(appProperties.getOtp().getMaxAttempts())
+        );
+
+        OtpVerification verification = switch (result == null ? 0 : result.intValue()) {
+            case 1 -> OtpVerification.VERIFIED;
+            case -1 -> OtpVerification.MISMATCH;
+            case -2 -> OtpVerification.ATTEMPTS_EXCEEDED;
+            default -> OtpVerification.EXPIRED;
+        };
+
+        log.debug("OTP verification for email: {} -> {}", email, verification);
+        return verification;
     }
 
     private String generateOtp() {
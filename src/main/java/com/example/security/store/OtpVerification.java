@@ -0,0 +1,9 @@
+package com.example.security.store;
+
+public enum OtpVerification {
+    VERIFIED,
+    MISMATCH,
+    EXPIRED,
+    // The OTP was discarded after too many wrong guesses
+    ATTEMPTS_EXCEEDED
+}
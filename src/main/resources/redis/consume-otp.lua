@@ -0,0 +1,28 @@
+-- Verifies and consumes an OTP in one call, counting failed attempts.
+-- KEYS[1] email:otp:<email>, KEYS[2] email:otp:attempts:<email>
+-- ARGV[1] hash of the submitted OTP, ARGV[2] max attempts
+-- Returns 1 verified, 0 expired, -1 mismatch, -2 attempts exceeded
+local stored = redis.call('GET', KEYS[1])
+if not stored then
+    return 0
+end
+
+if stored == ARGV[1] then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return 1
+end
+
+local attempts = redis.call('INCR', KEYS[2])
+if attempts == 1 then
+    -- The counter never outlives the OTP it protects
+    local ttl = redis.call('PTTL', KEYS[1])
+    if ttl > 0 then
+        redis.call('PEXPIRE', KEYS[2], ttl)
+    end
+end
+
+if attempts >= tonumber(ARGV[2]) then
+    redis.call('DEL', KEYS[1], KEYS[2])
+    return -2
+end
+return -1
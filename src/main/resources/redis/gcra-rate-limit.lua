@@ -0,0 +1,35 @@
+-- Generic cell rate algorithm: checks and consumes quota in one call.
+-- KEYS[1] notification:rate_limit:<channel>:<userId>, holds the theoretical arrival time (TAT) in ms
+-- ARGV[1] max requests per window, ARGV[2] window in ms, ARGV[3] permits to take (0 only peeks)
+-- Returns {allowed (1/0), remaining, retry after ms, reset after ms}
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local permits = tonumber(ARGV[3])
+
+-- Server time keeps every application node on the same clock
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local interval = window / limit
+local tat = tonumber(redis.call('GET', KEYS[1]))
+if not tat or tat < now then
+    tat = now
+end
+
+local cost = math.max(permits, 1)
+local newTat = tat + interval * cost
+local allowAt = newTat - window
+
+if now < allowAt then
+    local remaining = math.floor((now - (tat - window)) / interval)
+    return {0, math.max(remaining, 0), math.ceil(allowAt - now), math.ceil(tat - now)}
+end
+
+if permits == 0 then
+    return {1, math.floor((now - (tat - window)) / interval), 0, math.ceil(tat - now)}
+end
+
+-- The key expires exactly when the user is back to a full window of quota
+local ttl = math.ceil(newTat - now)
+redis.call('SET', KEYS[1], tostring(newTat), 'PX', ttl)
+return {1, math.floor((now - allowAt) / interval), 0, ttl}
@@ -0,0 +1,43 @@
+-- Leases a block of GCRA quota for one node, refunding what its previous lease left unspent.
+-- KEYS[1] notification:rate_limit:<channel>:<userId>, same TAT key as gcra-rate-limit.lua
+-- ARGV[1] max requests per window, ARGV[2] window in ms, ARGV[3] permits wanted,
+-- ARGV[4] unspent permits to refund, ARGV[5] allowed overshoot in ms of quota
+-- Returns {permits granted (may be partial), remaining, retry after ms, reset after ms}
+local limit = tonumber(ARGV[1])
+local window = tonumber(ARGV[2])
+local wanted = tonumber(ARGV[3])
+local refund = tonumber(ARGV[4])
+local overshoot = tonumber(ARGV[5])
+
+local time = redis.call('TIME')
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+
+local interval = window / limit
+local stored = tonumber(redis.call('GET', KEYS[1]))
+local tat = stored
+if not tat or tat < now then
+    tat = now
+end
+
+if refund > 0 then
+    tat = math.max(tat - interval * refund, now)
+end
+
+local available = math.floor((now - (tat - window - overshoot)) / interval)
+local granted = math.max(math.min(wanted, available), 0)
+tat = tat + interval * granted
+
+if tat ~= stored then
+    if tat > now then
+        redis.call('SET', KEYS[1], tostring(tat), 'PX', math.ceil(tat - now))
+    else
+        redis.call('DEL', KEYS[1])
+    end
+end
+
+local remaining = math.max(math.floor((now - (tat - window)) / interval), 0)
+local retryAfter = 0
+if granted == 0 then
+    retryAfter = math.ceil(tat + interval - window - overshoot - now)
+end
+return {granted, remaining, retryAfter, math.ceil(tat - now)}
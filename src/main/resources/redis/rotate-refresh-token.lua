@@ -0,0 +1,21 @@
+-- Atomically rotates a refresh token within its family.
+-- KEYS[1] refresh:<old jti>, KEYS[2] refresh:<new jti>, KEYS[3] refresh:user:<userId>
+-- ARGV[1] family id, ARGV[2] new jti, ARGV[3] ttl millis, ARGV[4] old jti, ARGV[5] now millis
+-- Index values are <jti>:<expires at millis>
+-- Returns 1 rotated, 0 invalid, -1 reused (old token was already rotated)
+if redis.call('GET', KEYS[1]) == ARGV[1] then
+    redis.call('DEL', KEYS[1])
+    redis.call('SET', KEYS[2], ARGV[1], 'PX', ARGV[3])
+    redis.call('HSET', KEYS[3], ARGV[1], ARGV[2] .. ':' .. (tonumber(ARGV[5]) + tonumber(ARGV[3])))
+    -- The index lives as long as the longest-lived session it points to
+    if redis.call('PTTL', KEYS[3]) < tonumber(ARGV[3]) then
+        redis.call('PEXPIRE', KEYS[3], ARGV[3])
+    end
+    return 1
+end
+
+local current = redis.call('HGET', KEYS[3], ARGV[1])
+if current and string.match(current, '^[^:]*') ~= ARGV[4] then
+    return -1
+end
+return 0
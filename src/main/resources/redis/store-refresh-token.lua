@@ -0,0 +1,25 @@
+-- Stores a refresh token and indexes its family, dropping families whose token has expired.
+-- KEYS[1] refresh:<jti>, KEYS[2] refresh:user:<userId>
+-- ARGV[1] family id, ARGV[2] jti, ARGV[3] ttl millis, ARGV[4] now millis
+-- Index values are <jti>:<expires at millis>
+-- Returns the number of expired families removed
+local now = tonumber(ARGV[4])
+local ttl = tonumber(ARGV[3])
+
+local pruned = 0
+local index = redis.call('HGETALL', KEYS[2])
+for i = 1, #index, 2 do
+    local expiresAt = tonumber(string.match(index[i + 1], ':(%d+)$'))
+    if expiresAt and expiresAt <= now then
+        redis.call('HDEL', KEYS[2], index[i])
+        pruned = pruned + 1
+    end
+end
+
+redis.call('SET', KEYS[1], ARGV[1], 'PX', ttl)
+redis.call('HSET', KEYS[2], ARGV[1], ARGV[2] .. ':' .. (now + ttl))
+-- The index lives as long as the longest-lived session it points to
+if redis.call('PTTL', KEYS[2]) < ttl then
+    redis.call('PEXPIRE', KEYS[2], ttl)
+end
+return pruned
@@ -0,0 +1,103 @@
+package com.example.notification.handler;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.entity.Notification;
+import com.example.notification.model.enums.ErrorType;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.notification.model.enums.NotificationStatus;
+import com.example.notification.repository.DeadLetterQueueRepository;
+import com.example.notification.repository.NotificationRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Checks that a failed batch is written back in one statement per outcome rather than one per row.
+ */
+class RetryHandlerTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationRepository notificationRepository = mock(NotificationRepository.class);
+    private final DeadLetterQueueRepository deadLetterQueueRepository = mock(DeadLetterQueueRepository.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+
+    private RetryHandler retryHandler;
+
+    @BeforeEach
+    void setUp() {
+        NotificationProperties properties = new NotificationProperties();
+        properties.getRetry().setMaxAttempts(MAX_ATTEMPTS);
+
+        retryHandler = new RetryHandler(properties, notificationRepository, deadLetterQueueRepository,
+                rabbitTemplate, mock(ErrorHandler.class));
+    }
+
+    @Test
+    void batchFailingForOneReasonIsScheduledByOneUpdate() {
+        List<RetryHandler.Failure> failures = LongStream.rangeClosed(1, 500)
+                .mapToObj(id -> failure(id, 0, ErrorType.RETRIABLE, "PROVIDER_UNAVAILABLE"))
+                .toList();
+
+        retryHandler.handleFailures(failures);
+
+        List<Long> ids = LongStream.rangeClosed(1, 500).boxed().toList();
+        verify(notificationRepository).markRetryScheduled(eq(ids), eq(NotificationStatus.RETRY), any(),
+                eq("error"), eq("PROVIDER_UNAVAILABLE"), any());
+        verify(notificationRepository, never()).markFailed(anyCollection(), any(), anyString(), anyString(), any());
+        verify(rabbitTemplate, times(500)).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class));
+    }
+
+    @Test
+    void finalFailuresAreGroupedByOutcomeAndCopiedToTheDlq() {
+        List<RetryHandler.Failure> failures = new ArrayList<>();
+        failures.add(failure(1L, 0, ErrorType.PERMANENT, "INVALID_RECIPIENT"));
+        failures.add(failure(2L, 1, ErrorType.PERMANENT, "INVALID_RECIPIENT"));
+        failures.add(failure(3L, MAX_ATTEMPTS, ErrorType.RETRIABLE, "TIMEOUT"));
+        failures.add(failure(4L, 1, ErrorType.RETRIABLE, "TIMEOUT"));
+
+        retryHandler.handleFailures(failures);
+
+        verify(notificationRepository).markFailed(eq(List.of(1L, 2L)), eq(NotificationStatus.FAILED_PERMANENT),
+                eq("Permanent error: error"), eq("INVALID_RECIPIENT"), any());
+        verify(deadLetterQueueRepository).insertFromNotifications(eq(List.of(1L, 2L)),
+                eq("Permanent error: error"), eq("INVALID_RECIPIENT"), any());
+        verify(notificationRepository).markFailed(eq(List.of(3L)), eq(NotificationStatus.FAILED_MAX_RETRY),
+                eq("Max retry attempts reached. Last error: error"), eq("TIMEOUT"), any());
+        verify(deadLetterQueueRepository).insertFromNotifications(eq(List.of(3L)),
+                eq("Max retry attempts reached. Last error: error"), eq("TIMEOUT"), any());
+        verify(notificationRepository).markRetryScheduled(eq(List.of(4L)), eq(NotificationStatus.RETRY), any(),
+                eq("error"), eq("TIMEOUT"), any());
+        verify(rabbitTemplate, times(1)).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class));
+    }
+
+    private static RetryHandler.Failure failure(long id, int retryCount, ErrorType errorType, String errorCode) {
+        Notification notification = Notification.builder()
+                .id(id)
+                .channel(NotificationChannel.EMAIL)
+                .retryCount(retryCount)
+                .build();
+        NotificationMessage message = NotificationMessage.builder()
+                .notificationId(id)
+                .channel(NotificationChannel.EMAIL)
+                .build();
+        return new RetryHandler.Failure(notification, message, "error", errorCode, errorType);
+    }
+}
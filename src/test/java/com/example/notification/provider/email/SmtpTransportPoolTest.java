@@ -0,0 +1,266 @@
+package com.example.notification.provider.email;
+
+import com.example.config.notification.NotificationProperties;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Sends through {@link SmtpTransportPool} to a local GreenMail SMTP server.
+ * Connections are counted from the JavaMail protocol trace: one EHLO per connection opened, one QUIT per close.
+ */
+class SmtpTransportPoolTest {
+
+    @RegisterExtension
+    static final GreenMailExtension GREEN_MAIL = new GreenMailExtension(ServerSetupTest.SMTP.dynamicPort());
+
+    private final ByteArrayOutputStream trace = new ByteArrayOutputStream();
+
+    private JavaMailSenderImpl mailSender;
+    private NotificationProperties properties;
+    private SmtpTransportPool pool;
+
+    @BeforeEach
+    void setUp() {
+        Session session = Session.getInstance(new Properties());
+        session.setDebug(true);
+        session.setDebugOut(new PrintStream(trace, true, StandardCharsets.UTF_8));
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setSession(session);
+        mailSender.setHost("localhost");
+        mailSender.setPort(GREEN_MAIL.getSmtp().getPort());
+
+        properties = new NotificationProperties();
+        // Trust pooled connections unless a test asks for NOOP validation
+        properties.getSmtpPool().setValidateAfterIdleMs(60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void emailsSentCloseTogetherShareOneConnection() throws Exception {
+        pool = newPool();
+
+        for (int i = 0; i < 3; i++) {
+            pool.send(message());
+        }
+
+        assertEquals(3, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(1, commands("EHLO"));
+    }
+
+    @Test
+    void connectionIsReplacedAfterMaxMessages() throws Exception {
+        properties.getSmtpPool().setMaxMessagesPerConnection(2);
+        pool = newPool();
+
+        for (int i = 0; i < 5; i++) {
+            pool.send(message());
+        }
+
+        assertEquals(5, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(3, commands("EHLO"));
+        assertEquals(2, commands("QUIT"));
+    }
+
+    @Test
+    void connectionIdlePastTheThresholdIsCheckedWithNoopAndReused() throws Exception {
+        properties.getSmtpPool().setValidateAfterIdleMs(0);
+        pool = newPool();
+
+        pool.send(message());
+        Thread.sleep(20);
+        pool.send(message());
+
+        assertEquals(2, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(1, commands("NOOP"));
+        assertEquals(1, commands("EHLO"));
+    }
+
+    @Test
+    void connectionFailingNoopIsReplaced() throws Exception {
+        properties.getSmtpPool().setValidateAfterIdleMs(0);
+        pool = newPool();
+
+        pool.send(message());
+        restartServer();
+        pool.send(message());
+
+        assertEquals(1, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(2, commands("EHLO"));
+    }
+
+    @Test
+    void dropBeforeDataIsResentOnANewConnection() throws Exception {
+        pool = newPool();
+
+        pool.send(message());
+        // The pooled connection is trusted without NOOP, so the drop shows up on MAIL FROM
+        restartServer();
+        pool.send(message());
+
+        assertEquals(1, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(2, commands("EHLO"));
+        // DATA for the first email and the resend only: the dropped attempt never got that far
+        assertEquals(2, commands("DATA"));
+    }
+
+    @Test
+    void dropAfterDataIsNotResent() throws Exception {
+        pool = newPool();
+        pool.send(message());
+
+        MimeMessage failing = new MimeMessage(mailSender.getSession()) {
+            @Override
+            public void writeTo(OutputStream os, String[] ignoreList) throws IOException {
+                throw new IOException("Connection reset");
+            }
+        };
+        address(failing);
+
+        MailSendException e = assertThrows(MailSendException.class, () -> pool.send(failing));
+
+        // Reported as retriable for RetryHandler, and never sent a second time
+        assertTrue(e.getMessage().contains("connection lost"), e.getMessage());
+        assertEquals(1, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(1, commands("EHLO"));
+    }
+
+    @Test
+    void rejectedRecipientKeepsTheConnection() throws Exception {
+        pool = newPool();
+        pool.send(message());
+
+        MimeMessage rejected = message();
+        // Unchecked address that GreenMail answers with 501 at RCPT
+        InternetAddress invalid = new InternetAddress();
+        invalid.setAddress("user>name@example.com");
+        rejected.setRecipient(MimeMessage.RecipientType.TO, invalid);
+
+        assertThrows(MailSendException.class, () -> pool.send(rejected));
+        pool.send(message());
+
+        // The refused send is not retried and the session carries on: one connection, never closed
+        assertEquals(2, GREEN_MAIL.getReceivedMessages().length);
+        assertEquals(1, commands("EHLO"));
+        assertEquals(0, commands("QUIT"));
+    }
+
+    @Test
+    void borrowTimesOutWhenEveryConnectionIsInUse() throws Exception {
+        properties.getSmtpPool().setMaxSize(1);
+        properties.getSmtpPool().setBorrowTimeoutMs(100);
+        pool = newPool();
+
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        MimeMessage slow = new MimeMessage(mailSender.getSession()) {
+            @Override
+            public void writeTo(OutputStream os, String[] ignoreList) throws IOException, MessagingException {
+                writing.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.writeTo(os, ignoreList);
+            }
+        };
+        address(slow);
+        slow.setText("slow");
+
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> pool.send(slow));
+        assertTrue(writing.await(5, TimeUnit.SECONDS));
+
+        MailSendException e = assertThrows(MailSendException.class, () -> pool.send(message()));
+        assertTrue(e.getMessage().contains("Timed out"), e.getMessage());
+
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        pool.send(message());
+        assertEquals(2, GREEN_MAIL.getReceivedMessages().length);
+    }
+
+    @Test
+    void evictorClosesConnectionsIdlePastMaxIdle() throws Exception {
+        properties.getSmtpPool().setMaxIdleMs(50);
+        pool = newPool();
+
+        pool.send(message());
+        Thread.sleep(100);
+        pool.evictIdle();
+
+        assertEquals(1, commands("QUIT"));
+
+        pool.send(message());
+        assertEquals(2, commands("EHLO"));
+    }
+
+    private SmtpTransportPool newPool() {
+        return new SmtpTransportPool(mailSender, properties);
+    }
+
+    private MimeMessage message() throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        address(message);
+        message.setText("Hello");
+        return message;
+    }
+
+    private static void address(MimeMessage message) throws MessagingException {
+        message.setFrom(new InternetAddress("noreply@example.com"));
+        message.setRecipient(MimeMessage.RecipientType.TO, new InternetAddress("user@example.com"));
+        message.setSubject("Notification");
+    }
+
+    /**
+     * Stop and start the server, which drops every open connection.
+     */
+    private void restartServer() {
+        GREEN_MAIL.stop();
+        GREEN_MAIL.start();
+        mailSender.setPort(GREEN_MAIL.getSmtp().getPort());
+    }
+
+    /**
+     * SMTP commands of this name the client issued, counted from the protocol trace
+     */
+    private int commands(String command) {
+        int count = 0;
+        for (String line : trace.toString(StandardCharsets.UTF_8).split("\\R")) {
+            if (line.equals(command) || line.startsWith(command + " ")) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.notification.provider.push;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.dto.ProviderResponse;
+import com.example.notification.model.enums.ErrorType;
+import com.example.notification.model.enums.NotificationChannel;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.messaging.BatchResponse;
+import com.google.firebase.messaging.FirebaseMessaging;
+import com.google.firebase.messaging.Message;
+import com.google.firebase.messaging.SendResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.MockedStatic;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Batch sends through {@link FCMPushProvider} with the Firebase SDK stubbed out.
+ */
+class FCMPushProviderTest {
+
+    private final FirebaseMessaging messaging = mock(FirebaseMessaging.class);
+
+    private MockedStatic<FirebaseApp> firebaseApp;
+    private MockedStatic<FirebaseMessaging> firebaseMessaging;
+    private FCMPushProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        firebaseApp = mockStatic(FirebaseApp.class);
+        firebaseApp.when(FirebaseApp::getApps).thenReturn(List.of(mock(FirebaseApp.class)));
+        firebaseMessaging = mockStatic(FirebaseMessaging.class);
+        firebaseMessaging.when(FirebaseMessaging::getInstance).thenReturn(messaging);
+
+        NotificationProperties properties = new NotificationProperties();
+        properties.getFirebase().setEnabled(true);
+        provider = new FCMPushProvider(properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        firebaseMessaging.close();
+        firebaseApp.close();
+    }
+
+    @Test
+    void badTokenFailsOnlyItsOwnMessage() throws Exception {
+        SendResponse first = successful("projects/demo/messages/1");
+        SendResponse third = successful("projects/demo/messages/3");
+        BatchResponse batchResponse = mock(BatchResponse.class);
+        when(batchResponse.getResponses()).thenReturn(List.of(first, third));
+        when(messaging.sendEach(anyList())).thenReturn(batchResponse);
+
+        List<ProviderResponse> responses = provider.sendBatch(List.of(
+                push(1L, "token-aaaaaaaaaaaaaaaaaaaaaaaa", "{\"title\":\"Hi\",\"body\":\"One\"}"),
+                push(2L, " ", "Two"),
+                push(3L, "token-cccccccccccccccccccccccc", null)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Message>> sent = ArgumentCaptor.forClass(List.class);
+        verify(messaging).sendEach(sent.capture());
+        assertEquals(2, sent.getValue().size());
+
+        assertEquals(3, responses.size());
+        assertTrue(responses.get(0).isSuccess());
+        assertEquals("projects/demo/messages/1", responses.get(0).getMessageId());
+
+        assertFalse(responses.get(1).isSuccess());
+        assertEquals(ErrorType.PERMANENT, responses.get(1).getErrorType());
+        assertEquals("INVALID_MESSAGE", responses.get(1).getErrorCode());
+
+        assertTrue(responses.get(2).isSuccess());
+        assertEquals("projects/demo/messages/3", responses.get(2).getMessageId());
+    }
+
+    private static SendResponse successful(String messageId) {
+        SendResponse response = mock(SendResponse.class);
+        when(response.isSuccessful()).thenReturn(true);
+        when(response.getMessageId()).thenReturn(messageId);
+        return response;
+    }
+
+    private static NotificationMessage push(Long id, String token, String content) {
+        return NotificationMessage.builder()
+                .notificationId(id)
+                .userId(1L)
+                .channel(NotificationChannel.PUSH)
+                .recipient(token)
+                .renderedContent(content)
+                .build();
+    }
+}
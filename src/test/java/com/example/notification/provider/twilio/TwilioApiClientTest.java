@@ -0,0 +1,125 @@
+package com.example.notification.provider.twilio;
+
+import com.example.config.notification.NotificationProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@link TwilioApiClient} against a local stand-in for the Twilio Messages endpoint
+ * that answers after a fixed latency.
+ */
+class TwilioApiClientTest {
+
+    private static final long LATENCY_MS = 200;
+    private static final int MAX_IN_FLIGHT = 3;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxObservedInFlight = new AtomicInteger();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+    private TwilioApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/2010-04-01/Accounts/AC123/Messages.json", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+
+        NotificationProperties properties = new NotificationProperties();
+        NotificationProperties.TwilioConfig twilio = properties.getTwilio();
+        twilio.setAccountSid("AC123");
+        twilio.setAuthToken("secret");
+        twilio.setApiBaseUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        twilio.setMaxInFlight(MAX_IN_FLIGHT);
+        twilio.setAcquireTimeoutMs(5_000);
+
+        client = new TwilioApiClient(properties, new ObjectMapper());
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void sendsConcurrentlyUpToTheInFlightLimitAndMapsEachResponse() {
+        int messages = 3 * MAX_IN_FLIGHT;
+        long start = System.nanoTime();
+
+        List<CompletableFuture<TwilioMessageResult>> results = new ArrayList<>();
+        for (int i = 0; i < messages; i++) {
+            String to = i == 0 ? "+15550000000" : "+1555000000" + i;
+            results.add(client.createMessage(to, "+15559999999", "Hello " + i));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertEquals(messages, requests.get());
+        assertEquals(MAX_IN_FLIGHT, maxObservedInFlight.get());
+        // Three waves of MAX_IN_FLIGHT requests, not nine sequential round trips
+        assertTrue(elapsedMs >= 3 * LATENCY_MS, "elapsed " + elapsedMs);
+        assertTrue(elapsedMs < messages * LATENCY_MS, "elapsed " + elapsedMs);
+
+        TwilioMessageResult rejected = results.get(0).join();
+        assertFalse(rejected.isSuccess());
+        assertFalse(rejected.isTransient());
+        assertEquals(400, rejected.httpStatus());
+        assertEquals(21211, rejected.errorCode());
+
+        for (CompletableFuture<TwilioMessageResult> result : results.subList(1, messages)) {
+            assertTrue(result.join().isSuccess());
+            assertEquals("queued", result.join().status());
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        requests.incrementAndGet();
+        int current = inFlight.incrementAndGet();
+        maxObservedInFlight.accumulateAndGet(current, Math::max);
+
+        String form = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        try {
+            Thread.sleep(LATENCY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Leave the in-flight count before answering, so the client's next request is not counted twice
+        inFlight.decrementAndGet();
+
+        if (form.contains("To=%2B15550000000")) {
+            respond(exchange, 400, "{\"code\":21211,\"message\":\"Invalid 'To' Phone Number\",\"status\":400}");
+        } else {
+            respond(exchange, 201, "{\"sid\":\"SM" + requests.get() + "\",\"status\":\"queued\"}");
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
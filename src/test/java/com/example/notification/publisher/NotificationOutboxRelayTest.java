@@ -0,0 +1,134 @@
+package com.example.notification.publisher;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.NotificationMessage;
+import com.example.notification.model.entity.NotificationOutbox;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.notification.repository.NotificationOutboxRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.net.ConnectException;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Relays outbox rows through a stubbed publisher whose confirms are decided per notification.
+ */
+class NotificationOutboxRelayTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final NotificationOutboxRepository outboxRepository = mock(NotificationOutboxRepository.class);
+    private final ChannelPublisher publisher = mock(ChannelPublisher.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private NotificationOutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        when(publisher.getChannel()).thenReturn(NotificationChannel.EMAIL);
+        when(outboxRepository.parkExhausted(anyCollection(), anyInt(), any())).thenReturn(List.of());
+
+        NotificationProperties properties = new NotificationProperties();
+        properties.getOutbox().setConfirmTimeoutMs(100);
+        properties.getOutbox().setMaxAttempts(MAX_ATTEMPTS);
+
+        relay = new NotificationOutboxRelay(
+                outboxRepository,
+                List.of(publisher),
+                properties,
+                objectMapper,
+                mock(PlatformTransactionManager.class),
+                Runnable::run);
+    }
+
+    @Test
+    void deletesConfirmedRowsAndCountsRejectedOnes() throws Exception {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(row(1L, 101L), row(2L, 102L), row(3L, 103L)));
+        // 101 is acked, 102 is nacked, 103 is never confirmed
+        Map<Long, Boolean> acks = Map.of(101L, true, 102L, false);
+        doAnswer(invocation -> {
+            NotificationMessage message = invocation.getArgument(0);
+            CorrelationData correlationData = invocation.getArgument(1);
+            Boolean ack = acks.get(message.getNotificationId());
+            if (ack != null) {
+                correlationData.getFuture().complete(new CorrelationData.Confirm(ack, ack ? null : "nack"));
+            }
+            return null;
+        }).when(publisher).publish(any(NotificationMessage.class), any(CorrelationData.class));
+
+        relay.poll();
+
+        verify(outboxRepository).deleteAllByIdInBatch(List.of(1L));
+        verify(outboxRepository).markAttemptFailed(eq(List.of(2L, 3L)), anyString());
+        verify(outboxRepository).parkExhausted(eq(List.of(2L, 3L)), eq(MAX_ATTEMPTS), any());
+        verify(outboxRepository, never()).markPublishError(anyCollection(), anyString());
+    }
+
+    @Test
+    void unroutableMessageIsKeptAsRejectedEvenThoughTheBrokerAcksIt() throws Exception {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(row(1L, 101L)));
+        // No queue is bound: the broker returns the mandatory message, then acks it
+        doAnswer(invocation -> {
+            CorrelationData correlationData = invocation.getArgument(1);
+            correlationData.setReturned(new ReturnedMessage(
+                    new Message(new byte[0]), 312, "NO_ROUTE", "notification.exchange", "notification.email"));
+            correlationData.getFuture().complete(new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(publisher).publish(any(NotificationMessage.class), any(CorrelationData.class));
+
+        relay.poll();
+
+        verify(outboxRepository).markAttemptFailed(eq(List.of(1L)), anyString());
+        verify(outboxRepository).parkExhausted(eq(List.of(1L)), eq(MAX_ATTEMPTS), any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void publishThatNeverReachesTheBrokerIsNotCountedAsAnAttempt() throws Exception {
+        when(outboxRepository.lockNextBatch(anyInt())).thenReturn(List.of(row(1L, 101L)));
+        doThrow(new AmqpConnectException(new ConnectException("Connection refused")))
+                .when(publisher).publish(any(NotificationMessage.class), any(CorrelationData.class));
+
+        relay.poll();
+
+        verify(outboxRepository).markPublishError(eq(List.of(1L)), anyString());
+        verify(outboxRepository, never()).markAttemptFailed(anyCollection(), anyString());
+        verify(outboxRepository, never()).parkExhausted(anyCollection(), anyInt(), any());
+        verify(outboxRepository, never()).deleteAllByIdInBatch(any());
+    }
+
+    private NotificationOutbox row(Long id, Long notificationId) throws Exception {
+        NotificationMessage message = NotificationMessage.builder()
+                .notificationId(notificationId)
+                .userId(1L)
+                .channel(NotificationChannel.EMAIL)
+                .recipient("user@example.com")
+                .build();
+        return NotificationOutbox.builder()
+                .id(id)
+                .notificationId(notificationId)
+                .channel(NotificationChannel.EMAIL)
+                .payload(objectMapper.writeValueAsString(message))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.notification.service.impl;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.RateLimitDecision;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.support.RedisContainers;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code redis/lease-rate-limit.lua} through {@link LeasedRateLimiterServiceImpl} against a real Redis,
+ * checking the shared key with the GCRA limiter. The window is an hour, so no quota comes back while a test runs.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class LeaseRateLimitScriptTest {
+
+    private static final int LIMIT = 10;
+    private static final long USER_ID = 42L;
+    private static final NotificationChannel CHANNEL = NotificationChannel.EMAIL;
+
+    @Container
+    static final GenericContainer<?> REDIS = RedisContainers.redis();
+
+    private static StringRedisTemplate redisTemplate;
+
+    private NotificationProperties properties;
+    private RateLimiterServiceImpl gcra;
+
+    @BeforeAll
+    static void connect() {
+        redisTemplate = RedisContainers.template(REDIS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisContainers.flush(redisTemplate);
+
+        properties = new NotificationProperties();
+        NotificationProperties.RateLimitConfig limit = new NotificationProperties.RateLimitConfig();
+        limit.setMaxRequests(LIMIT);
+        limit.setWindowSeconds(3600);
+        properties.getRateLimit().put("email", limit);
+
+        gcra = new RateLimiterServiceImpl(redisTemplate, properties);
+    }
+
+    @Test
+    void leaseIsGrantedInPartNearTheLimitThenDenied() {
+        for (int i = 0; i < LIMIT - 1; i++) {
+            assertTrue(gcra.tryConsume(USER_ID, CHANNEL).allowed());
+        }
+
+        LeasedRateLimiterServiceImpl leased = leasedLimiter();
+        // Leases 1 permit, then asks for 2 and gets 0: the last permit was already leased
+        assertTrue(leased.tryConsume(USER_ID, CHANNEL).allowed());
+        RateLimitDecision denied = leased.tryConsume(USER_ID, CHANNEL);
+        assertFalse(denied.allowed());
+        assertTrue(denied.retryAfterMs() > 0);
+
+        // The node and the shared key agree that the quota is spent
+        assertFalse(gcra.tryConsume(USER_ID, CHANNEL).allowed());
+    }
+
+    @Test
+    void unspentLeasedPermitsAreRefunded() {
+        LeasedRateLimiterServiceImpl leased = leasedLimiter();
+
+        // Leases of 1, 2 and 4 permits cover four sends and leave 3 unspent
+        for (int i = 0; i < 4; i++) {
+            assertTrue(leased.tryConsume(USER_ID, CHANNEL).allowed());
+        }
+        assertEquals(LIMIT - 7, gcra.peek(USER_ID, CHANNEL).remaining());
+
+        leased.releaseLeases();
+
+        assertEquals(LIMIT - 4, gcra.peek(USER_ID, CHANNEL).remaining());
+    }
+
+    @Test
+    void overshootLetsALeaseStayWholeNearTheLimit() {
+        for (int i = 0; i < LIMIT - 1; i++) {
+            assertTrue(gcra.tryConsume(USER_ID, CHANNEL).allowed());
+        }
+
+        properties.getRateLimitLease().setMaxOvershoot(0.2);
+        LeasedRateLimiterServiceImpl leased = leasedLimiter();
+
+        // One permit left in the limit, plus two of overshoot: leases of 1 and 2 both fit
+        for (int i = 0; i < 3; i++) {
+            assertTrue(leased.tryConsume(USER_ID, CHANNEL).allowed(), "send " + i);
+        }
+        assertFalse(leased.tryConsume(USER_ID, CHANNEL).allowed());
+    }
+
+    private LeasedRateLimiterServiceImpl leasedLimiter() {
+        return new LeasedRateLimiterServiceImpl(redisTemplate, gcra, properties, new SimpleMeterRegistry());
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.notification.service.impl;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.enums.NotificationChannel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Counts the Redis calls {@link LeasedRateLimiterServiceImpl} makes, with a lease script stub
+ * that grants every permit asked for.
+ */
+class LeasedRateLimiterServiceImplTest {
+
+    private static final long LEASE_TTL_MS = 200;
+
+    /**
+     * Permits wanted and refunded, one entry per script call
+     */
+    private final List<long[]> scriptCalls = new ArrayList<>();
+
+    /**
+     * Threads that ran a refund, i.e. a script call with permits to give back
+     */
+    private final List<String> refundThreads = new CopyOnWriteArrayList<>();
+
+    private LeasedRateLimiterServiceImpl limiter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            long wanted = Long.parseLong(invocation.getArgument(4));
+            long refund = Long.parseLong(invocation.getArgument(5));
+            synchronized (scriptCalls) {
+                scriptCalls.add(new long[]{wanted, refund});
+            }
+            if (refund > 0) {
+                refundThreads.add(Thread.currentThread().getName());
+            }
+            return List.of(wanted, 1_000L, 0L, 1_000L);
+        });
+
+        NotificationProperties properties = new NotificationProperties();
+        properties.getRateLimitLease().setLeaseTtlMs(LEASE_TTL_MS);
+        limiter = new LeasedRateLimiterServiceImpl(
+                redisTemplate,
+                new RateLimiterServiceImpl(redisTemplate, properties),
+                properties,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void oneSendPerUserCostsOneRedisCallEach() throws InterruptedException {
+        for (long userId = 1; userId <= 100; userId++) {
+            assertTrue(limiter.tryConsume(userId, NotificationChannel.EMAIL).allowed());
+        }
+        Thread.sleep(LEASE_TTL_MS * 5);
+        limiter.releaseLeases();
+
+        // Single-permit leases are spent at once, so nothing is left to refund
+        assertEquals(100, scriptCalls.size());
+        assertTrue(scriptCalls.stream().allMatch(call -> call[0] == 1 && call[1] == 0));
+    }
+
+    @Test
+    void leaseDoublesWhileTheKeyIsReused() {
+        for (int i = 0; i < 100; i++) {
+            assertTrue(limiter.tryConsume(42L, NotificationChannel.EMAIL).allowed());
+        }
+        limiter.releaseLeases();
+
+        // 1 + 2 + 4 + 8 + 16 + 20 * 4 leased for 100 sends, then the 11 unspent are refunded
+        List<Long> wanted = scriptCalls.stream().map(call -> call[0]).toList();
+        assertEquals(List.of(1L, 2L, 4L, 8L, 16L, 20L, 20L, 20L, 20L, 0L), wanted);
+        assertEquals(11, scriptCalls.get(scriptCalls.size() - 1)[1]);
+    }
+
+    @Test
+    void expiredLeaseIsRefundedOffTheCommonPool() throws InterruptedException {
+        // Leases of 1 and 2 cover two sends and leave one permit unspent
+        for (int i = 0; i < 2; i++) {
+            assertTrue(limiter.tryConsume(42L, NotificationChannel.EMAIL).allowed());
+        }
+
+        long deadline = System.currentTimeMillis() + LEASE_TTL_MS * 20;
+        while (refundThreads.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(LEASE_TTL_MS / 4);
+        }
+
+        assertEquals(1, refundThreads.size());
+        assertTrue(refundThreads.get(0).startsWith("rate-limit-refund-"), refundThreads.get(0));
+    }
+}
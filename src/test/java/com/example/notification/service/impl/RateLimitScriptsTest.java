@@ -0,0 +1,74 @@
+package com.example.notification.service.impl;
+
+import com.example.config.notification.NotificationProperties;
+import com.example.notification.model.dto.RateLimitDecision;
+import com.example.notification.model.enums.NotificationChannel;
+import com.example.support.RedisContainers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code redis/gcra-rate-limit.lua} through {@link RateLimiterServiceImpl} against a real Redis.
+ * The window is an hour, so no quota comes back while a test runs.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RateLimitScriptsTest {
+
+    private static final int LIMIT = 10;
+    private static final long USER_ID = 42L;
+    private static final NotificationChannel CHANNEL = NotificationChannel.EMAIL;
+
+    @Container
+    static final GenericContainer<?> REDIS = RedisContainers.redis();
+
+    private static StringRedisTemplate redisTemplate;
+
+    private RateLimiterServiceImpl gcra;
+
+    @BeforeAll
+    static void connect() {
+        redisTemplate = RedisContainers.template(REDIS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisContainers.flush(redisTemplate);
+
+        NotificationProperties properties = new NotificationProperties();
+        NotificationProperties.RateLimitConfig limit = new NotificationProperties.RateLimitConfig();
+        limit.setMaxRequests(LIMIT);
+        limit.setWindowSeconds(3600);
+        properties.getRateLimit().put("email", limit);
+
+        gcra = new RateLimiterServiceImpl(redisTemplate, properties);
+    }
+
+    @Test
+    void gcraAllowsUpToTheLimitAndDeniesTheNext() {
+        for (int i = 1; i <= LIMIT; i++) {
+            RateLimitDecision decision = gcra.tryConsume(USER_ID, CHANNEL);
+            assertTrue(decision.allowed(), "request " + i);
+            assertEquals(LIMIT - i, decision.remaining(), "request " + i);
+        }
+
+        RateLimitDecision denied = gcra.tryConsume(USER_ID, CHANNEL);
+        assertFalse(denied.allowed());
+        assertEquals(0, denied.remaining());
+        // One permit comes back every window / limit = 6 minutes
+        assertTrue(denied.retryAfterMs() > 0 && denied.retryAfterMs() <= 360_000, "retry after " + denied.retryAfterMs());
+
+        // A denial does not consume quota, and peeking never does
+        assertFalse(gcra.peek(USER_ID, CHANNEL).allowed());
+        assertTrue(gcra.peek(USER_ID + 1, CHANNEL).allowed());
+        assertEquals(LIMIT, gcra.peek(USER_ID + 1, CHANNEL).remaining());
+    }
+}
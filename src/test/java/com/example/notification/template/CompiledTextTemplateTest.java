@@ -0,0 +1,60 @@
+package com.example.notification.template;
+
+import org.junit.jupiter.api.Test;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.StringTemplateResolver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Checks that {@link CompiledTextTemplate} renders exactly what Thymeleaf renders in TEXT mode.
+ */
+class CompiledTextTemplateTest {
+
+    private final SpringTemplateEngine thymeleaf = textEngine();
+
+    @Test
+    void rendersBothInlineFormsLikeThymeleaf() {
+        Map<String, Object> data = new HashMap<>();
+        data.put("name", "a<b>&\"q\"'z");
+        data.put("amount", 42);
+        data.put("empty", null);
+
+        assertSameAsThymeleaf("Hi [(${name})], escaped: [[${name}]]!", data);
+        assertSameAsThymeleaf("Paid [[${amount}]] / [(${amount})]", data);
+        assertSameAsThymeleaf("[[${ name }]][(${missing})][[${empty}]] end", data);
+        assertSameAsThymeleaf("{\"title\":\"[[${name}]]\",\"body\":\"[(${name})]\"}", data);
+        assertSameAsThymeleaf("No variables at all", data);
+    }
+
+    @Test
+    void leavesAnythingBeyondPlainVariablesToThymeleaf() {
+        assertNull(CompiledTextTemplate.compile("[# th:if=\"${a}\"]x[/]"));
+        assertNull(CompiledTextTemplate.compile("[[${user.name}]]"));
+        assertNull(CompiledTextTemplate.compile("[(${a} + ${b})]"));
+    }
+
+    private void assertSameAsThymeleaf(String source, Map<String, Object> data) {
+        CompiledTextTemplate template = CompiledTextTemplate.compile(source);
+        assertNotNull(template, source);
+
+        StringBuilder out = new StringBuilder();
+        template.renderTo(out, data);
+        assertEquals(thymeleaf.process(source, new Context(null, data)), out.toString(), source);
+    }
+
+    private static SpringTemplateEngine textEngine() {
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.TEXT);
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+}
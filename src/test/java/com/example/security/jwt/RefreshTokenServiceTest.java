@@ -0,0 +1,150 @@
+package com.example.security.jwt;
+
+import com.example.config.AppProperties;
+import com.example.support.RedisContainers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs {@code redis/rotate-refresh-token.lua} through {@link RefreshTokenService} against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RefreshTokenServiceTest {
+
+    private static final long USER_ID = 7L;
+    private static final String FAMILY = "family-1";
+
+    @Container
+    static final GenericContainer<?> REDIS = RedisContainers.redis();
+
+    private static StringRedisTemplate redisTemplate;
+
+    private AppProperties appProperties;
+    private RefreshTokenService refreshTokenService;
+
+    @BeforeAll
+    static void connect() {
+        redisTemplate = RedisContainers.template(REDIS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisContainers.flush(redisTemplate);
+
+        appProperties = new AppProperties();
+        appProperties.getJwt().setRefreshExpiration(60_000L);
+        JwtSignKeyProvider keyProvider = mock(JwtSignKeyProvider.class);
+        when(keyProvider.getRefreshKeyRing()).thenReturn(mock(JwtKeyRing.class));
+
+        refreshTokenService = new RefreshTokenService(keyProvider, appProperties, redisTemplate);
+    }
+
+    @Test
+    void rotationMovesTheFamilyToTheNewToken() {
+        RefreshTokenClaims first = claims("jti-1", FAMILY);
+        RefreshTokenClaims second = claims("jti-2", FAMILY);
+        refreshTokenService.store(first);
+
+        assertEquals(RefreshTokenRotation.ROTATED, refreshTokenService.rotate(first, second));
+
+        assertNull(redisTemplate.opsForValue().get("refresh:jti-1"));
+        assertEquals(FAMILY, redisTemplate.opsForValue().get("refresh:jti-2"));
+        assertEquals("jti-2", indexedJti(FAMILY));
+    }
+
+    @Test
+    void replayingARotatedTokenIsReuseAndLeavesTheFamilyAlive() {
+        RefreshTokenClaims first = claims("jti-1", FAMILY);
+        RefreshTokenClaims second = claims("jti-2", FAMILY);
+        refreshTokenService.store(first);
+        refreshTokenService.rotate(first, second);
+
+        assertEquals(RefreshTokenRotation.REUSED, refreshTokenService.rotate(first, claims("jti-3", FAMILY)));
+
+        // The replay must not mint a token or move the family, and the winner's token still rotates
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("refresh:jti-3")));
+        assertEquals("jti-2", indexedJti(FAMILY));
+        assertEquals(RefreshTokenRotation.ROTATED, refreshTokenService.rotate(second, claims("jti-4", FAMILY)));
+    }
+
+    @Test
+    void unknownTokenIsInvalid() {
+        assertEquals(RefreshTokenRotation.INVALID,
+                refreshTokenService.rotate(claims("jti-1", FAMILY), claims("jti-2", FAMILY)));
+    }
+
+    @Test
+    void tokensOfARevokedFamilyAreInvalidNotReused() {
+        RefreshTokenClaims first = claims("jti-1", FAMILY);
+        RefreshTokenClaims second = claims("jti-2", FAMILY);
+        refreshTokenService.store(first);
+        refreshTokenService.rotate(first, second);
+
+        refreshTokenService.invalidate(second);
+
+        assertEquals(RefreshTokenRotation.INVALID, refreshTokenService.rotate(second, claims("jti-3", FAMILY)));
+        assertEquals(RefreshTokenRotation.INVALID, refreshTokenService.rotate(first, claims("jti-3", FAMILY)));
+    }
+
+    @Test
+    void revokingAllForUserEndsEveryFamily() {
+        RefreshTokenClaims phone = claims("jti-1", FAMILY);
+        RefreshTokenClaims laptop = claims("jti-2", "family-2");
+        refreshTokenService.store(phone);
+        refreshTokenService.store(laptop);
+
+        refreshTokenService.revokeAllForUser(USER_ID);
+
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey("refresh:user:" + USER_ID)));
+        assertEquals(RefreshTokenRotation.INVALID, refreshTokenService.rotate(phone, claims("jti-3", FAMILY)));
+        assertEquals(RefreshTokenRotation.INVALID, refreshTokenService.rotate(laptop, claims("jti-4", "family-2")));
+    }
+
+    @Test
+    void storingAFamilyDropsFamiliesWhoseTokenExpired() throws InterruptedException {
+        appProperties.getJwt().setRefreshExpiration(50L);
+        refreshTokenService.store(claims("jti-1", FAMILY));
+        refreshTokenService.store(claims("jti-2", "family-2"));
+        Thread.sleep(100);
+
+        appProperties.getJwt().setRefreshExpiration(60_000L);
+        refreshTokenService.store(claims("jti-3", "family-3"));
+
+        assertEquals(Set.of("family-3"), redisTemplate.<String, String>opsForHash().keys("refresh:user:" + USER_ID));
+    }
+
+    @Test
+    void liveFamiliesSurviveTheirNeighboursExpiring() throws InterruptedException {
+        refreshTokenService.store(claims("jti-1", FAMILY));
+        appProperties.getJwt().setRefreshExpiration(50L);
+        refreshTokenService.store(claims("jti-2", "family-2"));
+        Thread.sleep(100);
+
+        refreshTokenService.store(claims("jti-3", "family-3"));
+
+        assertEquals(Set.of(FAMILY, "family-3"), redisTemplate.<String, String>opsForHash().keys("refresh:user:" + USER_ID));
+        assertEquals("jti-1", indexedJti(FAMILY));
+    }
+
+    private String indexedJti(String familyId) {
+        Object entry = redisTemplate.opsForHash().get("refresh:user:" + USER_ID, familyId);
+        return entry == null ? null : entry.toString().split(":")[0];
+    }
+
+    private static RefreshTokenClaims claims(String jti, String familyId) {
+        return new RefreshTokenClaims(jti, familyId, USER_ID, "user@example.com");
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.security.store;
+
+import com.example.config.AppProperties;
+import com.example.support.RedisContainers;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs {@code redis/consume-otp.lua} through {@link OtpStore} against a real Redis.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class OtpStoreTest {
+
+    private static final int MAX_ATTEMPTS = 3;
+    private static final String EMAIL = "User@Example.com";
+    private static final String OTP_KEY = "email:otp:user@example.com";
+    private static final String ATTEMPTS_KEY = "email:otp:attempts:user@example.com";
+
+    @Container
+    static final GenericContainer<?> REDIS = RedisContainers.redis();
+
+    private static StringRedisTemplate redisTemplate;
+
+    private AppProperties appProperties;
+    private OtpStore otpStore;
+
+    @BeforeAll
+    static void connect() {
+        redisTemplate = RedisContainers.template(REDIS);
+    }
+
+    @BeforeEach
+    void setUp() {
+        RedisContainers.flush(redisTemplate);
+
+        appProperties = new AppProperties();
+        appProperties.getOtp().setMaxAttempts(MAX_ATTEMPTS);
+        otpStore = new OtpStore(redisTemplate, appProperties);
+    }
+
+    @Test
+    void correctOtpIsVerifiedOnce() {
+        String otp = otpStore.generateAndStore(EMAIL);
+
+        assertEquals(OtpVerification.VERIFIED, otpStore.consume(EMAIL, otp));
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(OTP_KEY)));
+        assertEquals(OtpVerification.EXPIRED, otpStore.consume(EMAIL, otp));
+    }
+
+    @Test
+    void wrongOtpsExhaustTheAttemptsAndBurnTheCode() {
+        String otp = otpStore.generateAndStore(EMAIL);
+        String wrong = wrongOtp(otp);
+
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            assertEquals(OtpVerification.MISMATCH, otpStore.consume(EMAIL, wrong));
+        }
+        assertEquals(OtpVerification.ATTEMPTS_EXCEEDED, otpStore.consume(EMAIL, wrong));
+
+        // The right code no longer works once the attempts are used up
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(OTP_KEY)));
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(ATTEMPTS_KEY)));
+        assertEquals(OtpVerification.EXPIRED, otpStore.consume(EMAIL, otp));
+    }
+
+    @Test
+    void maxAttemptsComesFromConfiguration() {
+        appProperties.getOtp().setMaxAttempts(1);
+        String otp = otpStore.generateAndStore(EMAIL);
+
+        assertEquals(OtpVerification.ATTEMPTS_EXCEEDED, otpStore.consume(EMAIL, wrongOtp(otp)));
+        assertEquals(OtpVerification.EXPIRED, otpStore.consume(EMAIL, otp));
+    }
+
+    @Test
+    void attemptCounterExpiresWithTheOtp() {
+        String otp = otpStore.generateAndStore(EMAIL);
+
+        assertEquals(OtpVerification.MISMATCH, otpStore.consume(EMAIL, wrongOtp(otp)));
+
+        Long otpTtl = redisTemplate.getExpire(OTP_KEY);
+        Long attemptsTtl = redisTemplate.getExpire(ATTEMPTS_KEY);
+        assertTrue(attemptsTtl > 0 && attemptsTtl <= otpTtl, "attempts TTL " + attemptsTtl + ", OTP TTL " + otpTtl);
+    }
+
+    @Test
+    void freshOtpResetsTheAttempts() {
+        String first = otpStore.generateAndStore(EMAIL);
+        for (int attempt = 1; attempt < MAX_ATTEMPTS; attempt++) {
+            otpStore.consume(EMAIL, wrongOtp(first));
+        }
+
+        String second = otpStore.generateAndStore(EMAIL);
+
+        assertFalse(Boolean.TRUE.equals(redisTemplate.hasKey(ATTEMPTS_KEY)));
+        assertEquals(OtpVerification.MISMATCH, otpStore.consume(EMAIL, wrongOtp(second)));
+        assertEquals(OtpVerification.VERIFIED, otpStore.consume(EMAIL, second));
+    }
+
+    private static String wrongOtp(String otp) {
+        return otp.equals("000000") ? "111111" : "000000";
+    }
+}
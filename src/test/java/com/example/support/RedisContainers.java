@@ -0,0 +1,43 @@
+package com.example.support;
+
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.utility.DockerImageName;
+
+/**
+ * Real Redis for tests of the Lua scripts, which a mocked template cannot exercise.
+ * Test classes declare the container with {@code @Testcontainers(disabledWithoutDocker = true)},
+ * so they are skipped rather than failed where Docker is not available.
+ */
+public final class RedisContainers {
+
+    private static final DockerImageName IMAGE = DockerImageName.parse("redis:7-alpine");
+
+    private RedisContainers() {
+    }
+
+    public static GenericContainer<?> redis() {
+        return new GenericContainer<>(IMAGE).withExposedPorts(6379);
+    }
+
+    public static StringRedisTemplate template(GenericContainer<?> redis) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(redis.getHost(), redis.getMappedPort(6379)));
+        connectionFactory.afterPropertiesSet();
+        connectionFactory.start();
+
+        StringRedisTemplate template = new StringRedisTemplate(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    public static void flush(StringRedisTemplate template) {
+        template.execute((RedisCallback<Object>) connection -> {
+            connection.serverCommands().flushAll();
+            return null;
+        });
+    }
+}